@@ -0,0 +1,73 @@
+package com.resumebuilder.config;
+
+import com.mongodb.MongoCompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(LegacyTimestampReadConverter.INSTANCE));
+    }
+
+    /**
+     * Wire compression between the app and mongod (resumebuilder.mongo.compressors, in order of preference).
+     * The server picks the first one it also supports, so this is safe against servers without compression.
+     * zlib needs no extra dependency; snappy and zstd need snappy-java / zstd-jni on the classpath.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCompressionCustomizer(
+            @Value("${resumebuilder.mongo.compressors:zlib}") List<String> compressors) {
+        List<MongoCompressor> compressorList = new ArrayList<>();
+        for (String name : compressors) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "zlib" -> compressorList.add(MongoCompressor.createZlibCompressor());
+                case "snappy" -> compressorList.add(MongoCompressor.createSnappyCompressor());
+                case "zstd" -> compressorList.add(MongoCompressor.createZstdCompressor());
+                case "", "none" -> { }
+                default -> throw new IllegalArgumentException("Unknown Mongo compressor: " + name);
+            }
+        }
+        return settings -> settings.compressorList(compressorList);
+    }
+
+    /**
+     * Reads timestamps still stored as ISO strings (written before they became BSON dates) until
+     * ResumeTimestampMigration has converted them. Zone-less values were produced with LocalDateTime.now()
+     * on the server, so they are interpreted in the server's default zone.
+     */
+    @ReadingConverter
+    public enum LegacyTimestampReadConverter implements Converter<String, Instant> {
+        INSTANCE;
+
+        @Override
+        public Instant convert(String source) {
+            return parse(source);
+        }
+
+        public static Instant parse(String source) {
+            if (source == null || source.isBlank()) return null;
+            try {
+                return Instant.parse(source);
+            } catch (DateTimeParseException e) {
+                return LocalDateTime.parse(source, DateTimeFormatter.ISO_DATE_TIME).atZone(ZoneId.systemDefault()).toInstant();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.resumebuilder.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Runs the "reactive" profile on Reactor Netty. Tomcat is on the classpath for the servlet edition, and Boot would
+ * otherwise prefer it (through its reactive adapter), which would make a servlet-vs-reactive benchmark meaningless.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
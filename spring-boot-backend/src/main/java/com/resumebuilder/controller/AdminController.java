@@ -1,18 +1,36 @@
 package com.resumebuilder.controller;
 
+import com.resumebuilder.model.AnalyticsBucket;
+import com.resumebuilder.model.AnalyticsMetric;
+import com.resumebuilder.model.PurgedUser;
 import com.resumebuilder.model.Resume;
 import com.resumebuilder.model.User;
 import com.resumebuilder.payload.request.AdminRolesRequest;
 import com.resumebuilder.payload.response.AdminPageResponse;
+import com.resumebuilder.payload.response.AdminPurgeStatusResponse;
 import com.resumebuilder.payload.response.AdminResumeResponse;
 import com.resumebuilder.payload.response.AdminStatsExtendedResponse;
 import com.resumebuilder.payload.response.AdminStatsResponse;
+import com.resumebuilder.payload.response.AdminTimeSeriesResponse;
 import com.resumebuilder.payload.response.AdminUserResponse;
 import com.resumebuilder.payload.response.MessageResponse;
+import com.resumebuilder.payload.response.ResumeImportResponse;
+import com.resumebuilder.payload.response.ResumeSearchHit;
 import com.resumebuilder.repository.ResumeRepository;
 import com.resumebuilder.repository.UserRepository;
 import com.resumebuilder.security.services.UserDetailsImpl;
+import com.resumebuilder.service.AnalyticsService;
+import com.resumebuilder.service.LatexPdfService;
+import com.resumebuilder.service.RenderScheduler;
+import com.resumebuilder.service.ResumeHistoryService;
+import com.resumebuilder.service.ResumeSearchService;
+import com.resumebuilder.service.ResumeTransferService;
+import com.resumebuilder.service.ResumeWriteBuffer;
+import com.resumebuilder.service.UserPurgeService;
+import com.resumebuilder.service.UserRoleService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,12 +40,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
@@ -38,6 +62,33 @@ public class AdminController {
     @Autowired
     ResumeRepository resumeRepository;
 
+    @Autowired
+    ResumeWriteBuffer resumeWriteBuffer;
+
+    @Autowired
+    AnalyticsService analyticsService;
+
+    @Autowired
+    UserRoleService userRoleService;
+
+    @Autowired
+    UserPurgeService userPurgeService;
+
+    @Autowired
+    ResumeSearchService resumeSearchService;
+
+    @Autowired
+    ResumeTransferService resumeTransferService;
+
+    @Autowired
+    LatexPdfService latexPdfService;
+
+    @Autowired
+    ResumeHistoryService resumeHistoryService;
+
+    @Autowired
+    RenderScheduler renderScheduler;
+
     private String getCurrentUserId() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (principal instanceof UserDetailsImpl) {
@@ -48,23 +99,68 @@ public class AdminController {
 
     @GetMapping("/stats")
     public ResponseEntity<AdminStatsResponse> getStats() {
-        long totalUsers = userRepository.count();
+        long totalUsers = userRepository.countByDeletedAtExists(false);
         long totalResumes = resumeRepository.count();
         return ResponseEntity.ok(new AdminStatsResponse(totalUsers, totalResumes));
     }
 
     @GetMapping("/stats/extended")
     public ResponseEntity<AdminStatsExtendedResponse> getStatsExtended() {
-        long totalUsers = userRepository.count();
-        List<Resume> allResumes = resumeRepository.findAll();
-        long totalResumes = allResumes.size();
-        Map<String, Long> resumesByTemplate = allResumes.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getTemplate() != null && !r.getTemplate().isEmpty() ? r.getTemplate() : "default",
-                        Collectors.counting()));
+        long totalUsers = userRepository.countByDeletedAtExists(false);
+        long totalResumes = resumeRepository.count();
+        Map<String, Long> resumesByTemplate = resumeRepository.countPerTemplate();
         return ResponseEntity.ok(new AdminStatsExtendedResponse(totalUsers, totalResumes, resumesByTemplate));
     }
 
+    /**
+     * Event counts per hour or day from the pre-aggregated buckets.
+     * metric: signups | resumes-created | resumes-updated | pdf-renders | pdf-compiles | pdf-compile-passes |
+     * pdf-compile-failures | pdf-compiles-cancelled | pdf-breaker-rejections | pdf-bytes-raw | pdf-bytes-optimized;
+     * granularity: hour | day.
+     */
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestParam String metric,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "30") int periods) {
+        Optional<AnalyticsMetric> analyticsMetric = AnalyticsMetric.fromKey(metric);
+        if (analyticsMetric.isEmpty()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Unknown metric: " + metric));
+        }
+        AnalyticsBucket.Granularity bucketGranularity;
+        try {
+            bucketGranularity = AnalyticsBucket.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Granularity must be hour or day"));
+        }
+        int boundedPeriods = Math.max(1, Math.min(periods, bucketGranularity == AnalyticsBucket.Granularity.HOUR ? 24 * 14 : 366));
+        AdminTimeSeriesResponse response = analyticsService.timeSeries(analyticsMetric.get(), bucketGranularity, boundedPeriods);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The latest pdflatex compiles on this node (newest first) with their parsed log diagnostics.
+     * failedOnly=true keeps only compiles that did not produce a PDF.
+     */
+    @GetMapping("/pdf/diagnostics")
+    public ResponseEntity<List<LatexPdfService.CompileReport>> getPdfDiagnostics(
+            @RequestParam(defaultValue = "false") boolean failedOnly) {
+        List<LatexPdfService.CompileReport> reports = latexPdfService.recentCompiles();
+        if (failedOnly) {
+            reports = reports.stream().filter(r -> !r.succeeded()).toList();
+        }
+        return ResponseEntity.ok(reports);
+    }
+
+    /**
+     * pdflatex slot usage on this node: busy slots, compiles waiting per priority class, and how long granted
+     * compiles waited for a slot (histogram per class, bucket upper bounds in ms).
+     */
+    @GetMapping("/pdf/scheduler")
+    public ResponseEntity<RenderScheduler.Stats> getPdfScheduler() {
+        return ResponseEntity.ok(renderScheduler.stats());
+    }
+
     @GetMapping("/users")
     public ResponseEntity<AdminPageResponse<AdminUserResponse>> getUsers(
             @RequestParam(required = false) String search,
@@ -72,12 +168,12 @@ public class AdminController {
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<User> userPage = (search != null && !search.trim().isEmpty())
-                ? userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(search.trim(), search.trim(), pageable)
-                : userRepository.findAll(pageable);
+                ? userRepository.searchActiveByPrefix(prefixPattern(search), pageable)
+                : userRepository.findByDeletedAtExists(false, pageable);
         List<User> users = userPage.getContent();
-        List<Resume> allResumes = resumeRepository.findAll();
-        Map<String, Long> resumeCountByUserId = allResumes.stream()
-                .collect(Collectors.groupingBy(Resume::getUserId, Collectors.counting()));
+        // Counted only for the users on this page
+        Map<String, Long> resumeCountByUserId = resumeRepository.countByUserIds(
+                users.stream().map(User::getId).toList());
         List<AdminUserResponse> content = users.stream()
                 .map(user -> new AdminUserResponse(
                         user.getId(),
@@ -101,13 +197,13 @@ public class AdminController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
+        // Resumes of users marked for deletion are hidden like the users themselves until the purge removes them
+        List<String> deletedUserIds = userPurgeService.pendingUserIds();
         Page<Resume> resumePage = (userId != null && !userId.isBlank())
-                ? resumeRepository.findByUserId(userId, pageable)
-                : resumeRepository.findAll(pageable);
+                ? (deletedUserIds.contains(userId) ? Page.empty(pageable) : resumeRepository.findByUserId(userId, pageable))
+                : resumeRepository.findByUserIdNotIn(deletedUserIds, pageable);
         List<Resume> resumes = resumePage.getContent();
-        List<User> allUsers = userRepository.findAll();
-        Map<String, String> usernameByUserId = allUsers.stream()
-                .collect(Collectors.toMap(User::getId, User::getUsername, (a, b) -> a));
+        Map<String, String> usernameByUserId = usernamesOf(resumes);
         List<AdminResumeResponse> content = resumes.stream()
                 .map(r -> new AdminResumeResponse(
                         r.getId(),
@@ -115,7 +211,7 @@ public class AdminController {
                         r.getUserId(),
                         usernameByUserId.getOrDefault(r.getUserId(), "—"),
                         r.getTemplate() != null ? r.getTemplate() : "default",
-                        r.getUpdatedAt() != null ? r.getUpdatedAt() : ""
+                        r.getUpdatedAt() != null ? r.getUpdatedAt().toString() : ""
                 ))
                 .collect(Collectors.toList());
         AdminPageResponse<AdminResumeResponse> response = new AdminPageResponse<>(
@@ -126,8 +222,23 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/resumes/search")
+    public ResponseEntity<?> searchResumes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Search text is required"));
+        }
+        AdminPageResponse<ResumeSearchHit> results =
+                resumeSearchService.search(q.trim(), null, userPurgeService.pendingUserIds(),
+                        Math.max(page, 0), Math.min(Math.max(size, 1), 50));
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/resumes/{id}")
     public ResponseEntity<?> getResumeById(@PathVariable String id) {
+        resumeWriteBuffer.flush(id);
         return resumeRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -139,12 +250,36 @@ public class AdminController {
         if (currentUserId != null && currentUserId.equals(id)) {
             return ResponseEntity.status(403).body(new MessageResponse("You cannot delete your own account."));
         }
-        if (!userRepository.existsById(id)) {
+        // The user disappears now; resumes are removed in the background (see GET /users/{id}/purge)
+        UserRoleService.Result result = userPurgeService.markDeleted(id);
+        if (result == UserRoleService.Result.NOT_FOUND) {
             return ResponseEntity.notFound().build();
         }
-        resumeRepository.deleteByUserId(id);
-        userRepository.deleteById(id);
-        return ResponseEntity.ok(new MessageResponse("User deleted successfully."));
+        if (result == UserRoleService.Result.LAST_ADMIN) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Cannot delete the last admin."));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("User deleted. Their resumes are being removed in the background."));
+    }
+
+    @GetMapping("/users/{id}/purge")
+    public ResponseEntity<AdminPurgeStatusResponse> getUserPurgeStatus(@PathVariable String id) {
+        User user = userRepository.findById(id).orElse(null);
+        long remaining = resumeRepository.countByUserId(id);
+        if (user == null) {
+            // The user document goes last, after a purge record is written; no record and no resumes means no such user
+            Optional<PurgedUser> purged = userPurgeService.purgeRecord(id);
+            if (purged.isEmpty() && remaining == 0) {
+                return ResponseEntity.notFound().build();
+            }
+            String deletedAt = purged.map(p -> p.getDeletedAt() != null ? p.getDeletedAt().toString() : null).orElse(null);
+            long purgedResumes = purged.map(PurgedUser::getPurgedResumes).orElse(0L);
+            return ResponseEntity.ok(new AdminPurgeStatusResponse(id, deletedAt, purgedResumes, remaining, remaining == 0));
+        }
+        if (user.getDeletedAt() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new AdminPurgeStatusResponse(
+                id, user.getDeletedAt().toString(), user.getPurgedResumes(), remaining, false));
     }
 
     @DeleteMapping("/resumes/{id}")
@@ -152,7 +287,9 @@ public class AdminController {
         if (!resumeRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
+        resumeWriteBuffer.discard(id);
         resumeRepository.deleteById(id);
+        resumeHistoryService.deleteHistory(id);
         return ResponseEntity.ok(new MessageResponse("Resume deleted successfully."));
     }
 
@@ -161,33 +298,20 @@ public class AdminController {
         if (request.getRoles() == null || request.getRoles().isEmpty()) {
             return ResponseEntity.badRequest().body(new MessageResponse("At least one role is required."));
         }
-        User user = userRepository.findById(id).orElse(null);
-        if (user == null) {
+        UserRoleService.Result result = userRoleService.updateRoles(id, new HashSet<>(request.getRoles()));
+        if (result == UserRoleService.Result.NOT_FOUND) {
             return ResponseEntity.notFound().build();
         }
-        Set<String> currentRoles = user.getRoles();
-        boolean hadAdmin = currentRoles != null && currentRoles.contains("ROLE_ADMIN");
-        Set<String> newRoles = new HashSet<>(request.getRoles());
-        boolean hasAdmin = newRoles.contains("ROLE_ADMIN");
-        if (hadAdmin && !hasAdmin) {
-            long adminCount = userRepository.findAll().stream()
-                    .filter(u -> u.getRoles() != null && u.getRoles().contains("ROLE_ADMIN"))
-                    .count();
-            if (adminCount <= 1) {
-                return ResponseEntity.badRequest().body(new MessageResponse("Cannot remove the last admin."));
-            }
+        if (result == UserRoleService.Result.LAST_ADMIN) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Cannot remove the last admin."));
         }
-        user.setRoles(newRoles);
-        userRepository.save(user);
         return ResponseEntity.ok(new MessageResponse("Roles updated successfully."));
     }
 
     @GetMapping(value = "/users/export", produces = "text/csv")
     public ResponseEntity<String> exportUsersCsv() {
-        List<User> users = userRepository.findAll();
-        List<Resume> allResumes = resumeRepository.findAll();
-        Map<String, Long> resumeCountByUserId = allResumes.stream()
-                .collect(Collectors.groupingBy(Resume::getUserId, Collectors.counting()));
+        List<User> users = userRepository.findByDeletedAtExists(false);
+        Map<String, Long> resumeCountByUserId = resumeRepository.countPerUser();
         StringBuilder csv = new StringBuilder();
         csv.append("id,username,email,roles,resumeCount\n");
         for (User u : users) {
@@ -209,12 +333,11 @@ public class AdminController {
 
     @GetMapping(value = "/resumes/export", produces = "text/csv")
     public ResponseEntity<String> exportResumesCsv(@RequestParam(required = false) String userId) {
+        List<String> deletedUserIds = userPurgeService.pendingUserIds();
         List<Resume> resumes = (userId != null && !userId.isBlank())
-                ? resumeRepository.findByUserId(userId)
-                : resumeRepository.findAll();
-        List<User> allUsers = userRepository.findAll();
-        Map<String, String> usernameByUserId = allUsers.stream()
-                .collect(Collectors.toMap(User::getId, User::getUsername, (a, b) -> a));
+                ? (deletedUserIds.contains(userId) ? List.of() : resumeRepository.findByUserId(userId))
+                : resumeRepository.findByUserIdNotIn(deletedUserIds);
+        Map<String, String> usernameByUserId = usernamesOf(resumes);
         StringBuilder csv = new StringBuilder();
         csv.append("id,name,userId,ownerUsername,template,updatedAt\n");
         for (Resume r : resumes) {
@@ -224,7 +347,7 @@ public class AdminController {
                     .append(escapeCsv(r.getUserId())).append(",")
                     .append(escapeCsv(owner)).append(",")
                     .append(escapeCsv(r.getTemplate() != null ? r.getTemplate() : "default")).append(",")
-                    .append(escapeCsv(r.getUpdatedAt() != null ? r.getUpdatedAt() : "")).append("\n");
+                    .append(escapeCsv(r.getUpdatedAt() != null ? r.getUpdatedAt().toString() : "")).append("\n");
         }
         HttpHeaders headers = new HttpHeaders();
         headers.setContentDispositionFormData("attachment", "resumes.csv");
@@ -234,6 +357,60 @@ public class AdminController {
                 .body(csv.toString());
     }
 
+    /**
+     * Streams resumes as NDJSON (one Resume JSON document per line) read through a Mongo cursor.
+     * Selected with ?format=ndjson so the CSV export on the same path keeps working; add gzip=true for a .gz download.
+     */
+    @GetMapping(value = "/resumes/export", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportResumesNdjson(
+            @RequestParam(required = false) String userId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String ownerFilter = (userId != null && !userId.isBlank()) ? userId : null;
+        List<String> deletedUserIds = userPurgeService.pendingUserIds();
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    resumeTransferService.exportNdjson(ownerFilter, deletedUserIds, gzipOut);
+                }
+            } else {
+                resumeTransferService.exportNdjson(ownerFilter, deletedUserIds, out);
+            }
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDispositionFormData("attachment", gzip ? "resumes.ndjson.gz" : "resumes.ndjson");
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Imports resumes from an NDJSON body (Content-Encoding: gzip supported), inserting them in unordered
+     * bulk batches. Returns counts plus the line number and reason for each rejected line.
+     */
+    @PostMapping(value = "/resumes/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ResumeImportResponse> importResumesNdjson(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return ResponseEntity.ok(resumeTransferService.importNdjson(in));
+    }
+
+    // Anchored, escaped, lowercase regex so the search can use the usernameLower/emailLower indexes
+    private static String prefixPattern(String search) {
+        String prefix = search.trim().toLowerCase(Locale.ROOT);
+        return "^" + prefix.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0");
+    }
+
+    // Usernames of the owners of these resumes only, by user id
+    private Map<String, String> usernamesOf(List<Resume> resumes) {
+        Set<String> userIds = resumes.stream().map(Resume::getUserId).collect(Collectors.toSet());
+        Map<String, String> usernames = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> usernames.put(user.getId(), user.getUsername()));
+        return usernames;
+    }
+
     private static String escapeCsv(String value) {
         if (value == null) return "";
         if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
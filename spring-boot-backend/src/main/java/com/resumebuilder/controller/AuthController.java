@@ -1,6 +1,7 @@
 
 package com.resumebuilder.controller;
 
+import com.resumebuilder.model.AnalyticsMetric;
 import com.resumebuilder.model.User;
 import com.resumebuilder.payload.request.LoginRequest;
 import com.resumebuilder.payload.request.SignupRequest;
@@ -9,9 +10,15 @@ import com.resumebuilder.payload.response.MessageResponse;
 import com.resumebuilder.repository.UserRepository;
 import com.resumebuilder.security.jwt.JwtUtils;
 import com.resumebuilder.security.services.UserDetailsImpl;
+import com.resumebuilder.service.AnalyticsService;
+import com.resumebuilder.service.TokenDenylist;
+import com.resumebuilder.service.UserRoleService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -29,6 +36,7 @@ import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 public class AuthController {
     @Autowired
@@ -43,6 +51,15 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    AnalyticsService analyticsService;
+
+    @Autowired
+    TokenDenylist tokenDenylist;
+
+    @Autowired
+    UserRoleService userRoleService;
+
     @Value("${resumebuilder.seed-admin:false}")
     private boolean seedAdminEnabled;
 
@@ -59,12 +76,14 @@ public class AuthController {
         String message;
         if (userRepository.existsByUsername("admin")) {
             User admin = userRepository.findByUsername("admin").orElseThrow();
+            boolean wasAdmin = admin.getRoles() != null && admin.getRoles().contains(UserRoleService.ROLE_ADMIN);
             admin.setPassword(encoder.encode("admin123"));
             Set<String> roles = new HashSet<>();
             roles.add("ROLE_USER");
             roles.add("ROLE_ADMIN");
             admin.setRoles(roles);
             userRepository.save(admin);
+            if (!wasAdmin && admin.getDeletedAt() == null) userRoleService.adminAdded();
             message = "Admin password reset. Login with username: admin, password: admin123";
         } else {
             User admin = new User();
@@ -76,6 +95,7 @@ public class AuthController {
             roles.add("ROLE_ADMIN");
             admin.setRoles(roles);
             userRepository.save(admin);
+            userRoleService.adminAdded();
             message = "Admin user created. Login with username: admin, password: admin123";
         }
         return ResponseEntity.ok(new MessageResponse(message));
@@ -110,6 +130,27 @@ public class AuthController {
         }
     }
     
+    /**
+     * Revokes the presented token (by its jti) until it expires, on every node within the denylist sync interval.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String jwt = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        Claims claims = jwt != null ? jwtUtils.parseValidToken(jwt) : null;
+        if (claims == null) {
+            return ResponseEntity.status(401).body(new MessageResponse("Error: No valid token to revoke"));
+        }
+        if (claims.getId() == null) {
+            // Issued before tokens carried an id; it simply runs out at its expiry
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: This token cannot be revoked; sign in again to get a revocable token"));
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String userId = authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails
+                ? userDetails.getId() : null;
+        tokenDenylist.revoke(claims.getId(), userId, claims.getExpiration().toInstant());
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<?> handleAuthenticationException(AuthenticationException e) {
         return ResponseEntity.status(401)
@@ -149,6 +190,7 @@ public class AuthController {
 
         user.setRoles(roles);
         userRepository.save(user);
+        analyticsService.record(AnalyticsMetric.SIGNUPS);
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
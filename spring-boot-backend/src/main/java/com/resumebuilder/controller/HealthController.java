@@ -1,5 +1,6 @@
 package com.resumebuilder.controller;
 
+import com.resumebuilder.service.RenderCircuitBreaker;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,10 +13,23 @@ import java.util.Map;
 @RequestMapping("/api/health")
 public class HealthController {
 
+    private final RenderCircuitBreaker renderCircuitBreaker;
+
+    public HealthController(RenderCircuitBreaker renderCircuitBreaker) {
+        this.renderCircuitBreaker = renderCircuitBreaker;
+    }
+
+    /**
+     * The node stays UP while PDF rendering is degraded (resumes are then served for client-side rendering);
+     * pdfRendering shows each template's pdflatex circuit on this node.
+     */
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
         return ResponseEntity.ok(Map.of(
                 "status", "UP",
-                "timestamp", Instant.now().toString()));
+                "timestamp", Instant.now().toString(),
+                "pdfRendering", Map.of(
+                        "status", renderCircuitBreaker.isDegraded() ? "DEGRADED" : "UP",
+                        "templates", renderCircuitBreaker.snapshot())));
     }
 }
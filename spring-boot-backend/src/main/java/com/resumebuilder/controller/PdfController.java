@@ -1,24 +1,44 @@
 package com.resumebuilder.controller;
 
+import com.resumebuilder.model.AnalyticsMetric;
+import com.resumebuilder.model.RenderTask;
 import com.resumebuilder.model.Resume;
+import com.resumebuilder.payload.response.MessageResponse;
 import com.resumebuilder.repository.ResumeRepository;
+import com.resumebuilder.service.AnalyticsService;
 import com.resumebuilder.service.LatexPdfService;
 import com.resumebuilder.service.LatexTemplateService;
+import com.resumebuilder.service.PdfPreviewService;
+import com.resumebuilder.service.RenderQueue;
+import com.resumebuilder.service.RenderScheduler;
+import com.resumebuilder.service.ResumeWriteBuffer;
+import com.resumebuilder.util.ETags;
+import com.resumebuilder.util.ResponseFormats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/pdf")
 public class PdfController {
 
+    private static final long ASYNC_GRACE_MS = 5000;
+
     @Autowired
     ResumeRepository resumeRepository;
 
@@ -28,12 +48,36 @@ public class PdfController {
     @Autowired
     LatexPdfService latexPdfService;
 
+    @Autowired
+    RenderQueue renderQueue;
+
+    @Autowired
+    PdfPreviewService pdfPreviewService;
+
+    @Autowired
+    ResumeWriteBuffer resumeWriteBuffer;
+
+    @Autowired
+    AnalyticsService analyticsService;
+
+    /**
+     * Renders asynchronously: the request thread is released while pdflatex runs, and if the client disconnects or
+     * the render outlasts resumebuilder.latex.request-timeout-ms, the request stops waiting and its compile is
+     * cancelled (pdflatex is killed unless another request is waiting for the same PDF). With the render queue enabled
+     * the request is held, again without a thread, until a worker finishes the PDF; after wait-ms it is answered with 202.
+     */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> generatePdf(@PathVariable String id) {
+    public DeferredResult<ResponseEntity<?>> generatePdf(@PathVariable String id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // The render itself gives up at the request timeout; this is only a backstop if that never completes
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(latexPdfService.requestTimeoutMs() + ASYNC_GRACE_MS);
+        resumeWriteBuffer.flush(id);
         Optional<Resume> opt = resumeRepository.findById(id);
         if (opt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Resume not found");
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Resume not found"));
+            return result;
         }
         Resume resume = opt.get();
         String templateId = resume.getTemplate() != null ? resume.getTemplate().trim() : null;
@@ -43,25 +87,155 @@ public class PdfController {
                 && latexTemplateService.hasTemplate(templateId)
                 && latexPdfService.isLatexEnabled()) {
             try {
-                byte[] pdf = latexPdfService.generatePdf(resume, templateId);
-                if (pdf != null && pdf.length > 0) {
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setContentType(MediaType.APPLICATION_PDF);
-                    headers.setContentLength(pdf.length);
-                    String filename = (resume.getPersonalInfo() != null && resume.getPersonalInfo().getName() != null)
-                            ? resume.getPersonalInfo().getName().replaceAll("[^a-zA-Z0-9.-]", "_") + ".pdf"
-                            : "resume.pdf";
-                    headers.setContentDispositionFormData("attachment", filename);
-                    return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
+                // Same resume state + same template content = same PDF, so a match skips pdflatex entirely
+                String etag = ETags.forPdf(resume, templateId, latexTemplateService.contentHash(templateId));
+                CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+                if (ETags.matches(ifNoneMatch, etag)) {
+                    result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build());
+                    return result;
+                }
+                if (renderQueue.isEnabled()) {
+                    CompletableFuture<RenderQueue.Result> queued = renderQueue.renderAsync(resume, templateId);
+                    result.onTimeout(() -> {
+                        queued.cancel(true);
+                        result.setResult(stillRendering());
+                    });
+                    result.onError(e -> queued.cancel(true));
+                    queued.whenComplete((done, e) -> {
+                        if (done != null && (done.status() == RenderTask.Status.QUEUED || done.status() == RenderTask.Status.RUNNING)) {
+                            result.setResult(stillRendering());
+                        } else {
+                            result.setResult(pdfOrFallback(resume, done != null ? done.pdf() : null, etag, cacheControl, accept));
+                        }
+                    });
+                    return result;
+                }
+                String source = latexPdfService.renderSource(resume, templateId);
+                if (source != null) {
+                    CompletableFuture<byte[]> render = latexPdfService.generatePdfAsync(templateId, source, currentRequester());
+                    result.onTimeout(() -> {
+                        render.cancel(true);
+                        result.setResult(fallback(resume, accept));
+                    });
+                    result.onError(e -> render.cancel(true));
+                    render.whenComplete((pdf, e) -> result.setResult(pdfOrFallback(resume, pdf, etag, cacheControl, accept)));
+                    return result;
                 }
             } catch (Exception e) {
                 // Fall through to JSON / client-side fallback
             }
         }
 
-        // No LaTeX template or compilation failed: return JSON so frontend can use html2canvas fallback
+        result.setResult(fallback(resume, accept));
+        return result;
+    }
+
+    // Compiles are scheduled fairly per user; this is who the current request renders for
+    private static RenderScheduler.Requester currentRequester() {
+        return RenderScheduler.Requester.of(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // Still rendering on a worker; the same request joins the same task when retried
+    private static ResponseEntity<?> stillRendering() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(new MessageResponse("PDF is being rendered, retry shortly"));
+    }
+
+    private ResponseEntity<?> pdfOrFallback(Resume resume, byte[] pdf, String etag, CacheControl cacheControl, String accept) {
+        if (pdf == null || pdf.length == 0) {
+            return fallback(resume, accept);
+        }
+        analyticsService.record(AnalyticsMetric.PDF_RENDERS);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentLength(pdf.length);
+        headers.setETag(etag);
+        headers.setCacheControl(cacheControl);
+        String filename = (resume.getPersonalInfo() != null && resume.getPersonalInfo().getName() != null)
+                ? resume.getPersonalInfo().getName().replaceAll("[^a-zA-Z0-9.-]", "_") + ".pdf"
+                : "resume.pdf";
+        headers.setContentDispositionFormData("attachment", filename);
+        return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
+    }
+
+    // No LaTeX template or compilation failed: return the resume data so frontend can use html2canvas fallback
+    private static ResponseEntity<?> fallback(Resume resume, String accept) {
         return ResponseEntity.status(HttpStatus.OK)
-                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .contentType(ResponseFormats.dataFallback(accept))
+                .varyBy(HttpHeaders.ACCEPT)
                 .body(resume);
     }
+
+    /**
+     * PNG of one page of the compiled PDF, width pixels wide (32-2000). Only the owner (or an admin) may preview a
+     * resume. 404 if the resume has no LaTeX template, compilation fails or the page does not exist; 503 with
+     * Retry-After while the PDF or preview pool is busy. Like the PDF itself, rendered without holding the request
+     * thread.
+     */
+    @GetMapping(value = "/{id}/preview")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public DeferredResult<ResponseEntity<?>> preview(@PathVariable String id,
+                                                     @RequestParam(defaultValue = "1") int page,
+                                                     @RequestParam(defaultValue = "" + PdfPreviewService.DEFAULT_WIDTH) int width,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(latexPdfService.requestTimeoutMs() + ASYNC_GRACE_MS);
+        if (page < 1 || width < PdfPreviewService.MIN_WIDTH || width > PdfPreviewService.MAX_WIDTH) {
+            result.setResult(ResponseEntity.badRequest().body(new MessageResponse("page must be >= 1 and width between "
+                    + PdfPreviewService.MIN_WIDTH + " and " + PdfPreviewService.MAX_WIDTH)));
+            return result;
+        }
+        // The latest state (a buffered autosave if there is one), read without flushing it for a caller not yet checked
+        Optional<Resume> opt = resumeWriteBuffer.isEnabled() ? resumeWriteBuffer.find(id) : resumeRepository.findById(id);
+        if (opt.isEmpty()) {
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Resume not found")));
+            return result;
+        }
+        Resume resume = opt.get();
+        RenderScheduler.Requester requester = currentRequester();
+        if (!requester.admin() && !resume.getUserId().equals(requester.userId())) {
+            result.setResult(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("You don't have permission to preview this resume")));
+            return result;
+        }
+        String templateId = resume.getTemplate() != null ? resume.getTemplate().trim() : null;
+        if (templateId == null || !latexTemplateService.hasTemplate(templateId) || !latexPdfService.isLatexEnabled()) {
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Resume has no LaTeX template")));
+            return result;
+        }
+        try {
+            String pdfEtag = ETags.forPdf(resume, templateId, latexTemplateService.contentHash(templateId));
+            String etag = ETags.forContent(pdfEtag, String.valueOf(page), String.valueOf(width));
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            if (ETags.matches(ifNoneMatch, etag)) {
+                result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build());
+                return result;
+            }
+            CompletableFuture<byte[]> preview = pdfPreviewService.previewAsync(resume, templateId, page, width, requester);
+            result.onTimeout(() -> {
+                preview.cancel(true);
+                result.setResult(previewBusy());
+            });
+            result.onError(e -> preview.cancel(true));
+            preview.whenComplete((png, e) -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof RejectedExecutionException) {
+                    result.setResult(previewBusy());
+                } else if (png == null) {
+                    result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("No preview for this page")));
+                } else {
+                    result.setResult(ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).eTag(etag).cacheControl(cacheControl).body(png));
+                }
+            });
+        } catch (Exception e) {
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("No preview for this page")));
+        }
+        return result;
+    }
+
+    private static ResponseEntity<?> previewBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(new MessageResponse("Preview is being rendered, retry shortly"));
+    }
 }
@@ -1,29 +1,61 @@
 
 package com.resumebuilder.controller;
 
+import com.resumebuilder.model.AnalyticsMetric;
 import com.resumebuilder.model.Resume;
+import com.resumebuilder.payload.request.ResumePatchRequest;
+import com.resumebuilder.payload.response.AdminPageResponse;
 import com.resumebuilder.payload.response.MessageResponse;
+import com.resumebuilder.payload.response.ResumeDiffResponse;
+import com.resumebuilder.payload.response.ResumeRevisionSummary;
+import com.resumebuilder.payload.response.ResumeSearchHit;
 import com.resumebuilder.repository.ResumeRepository;
 import com.resumebuilder.security.services.UserDetailsImpl;
+import com.resumebuilder.service.AnalyticsService;
+import com.resumebuilder.service.ResumeHistoryService;
+import com.resumebuilder.service.ResumeSearchService;
+import com.resumebuilder.service.ResumeWriteBuffer;
+import com.resumebuilder.util.ETags;
+import com.resumebuilder.util.ResumeUpdates;
+import jakarta.validation.Valid;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/resumes")
 public class ResumeController {
     @Autowired
     ResumeRepository resumeRepository;
 
+    @Autowired
+    ResumeWriteBuffer resumeWriteBuffer;
+
+    @Autowired
+    AnalyticsService analyticsService;
+
+    @Autowired
+    ResumeSearchService resumeSearchService;
+
+    @Autowired
+    ResumeHistoryService resumeHistoryService;
+
+    private static final int HISTORY_LIST_LIMIT = 50;
+
     private String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -34,14 +66,35 @@ public class ResumeController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<Resume>> getAllResumes() {
         String userId = getCurrentUserId();
-        List<Resume> resumes = resumeRepository.findByUserId(userId);
+        resumeWriteBuffer.flushUser(userId);
+        List<Resume> resumes = resumeRepository.findByUserIdOrderByUpdatedAtDesc(userId);
         return ResponseEntity.ok(resumes);
     }
 
+    /**
+     * Ranked full-text search over the current user's resumes (skills, companies, descriptions, technologies...).
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> searchResumes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Search text is required"));
+        }
+        String userId = getCurrentUserId();
+        AdminPageResponse<ResumeSearchHit> results =
+                resumeSearchService.search(q.trim(), userId, Math.max(page, 0), Math.min(Math.max(size, 1), 50));
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getResumeById(@PathVariable String id) {
+    public ResponseEntity<?> getResumeById(@PathVariable String id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String userId = getCurrentUserId();
+        resumeWriteBuffer.flush(id);
         
         Optional<Resume> resumeData = resumeRepository.findById(id);
         
@@ -53,7 +106,14 @@ public class ResumeController {
                 return ResponseEntity.status(403).body(new MessageResponse("You don't have permission to access this resume"));
             }
             
-            return ResponseEntity.ok(resume);
+            // Private and always revalidated: the client keeps its copy and gets a bodiless 304 while unchanged
+            String etag = ETags.forResume(resume);
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            // Same resume is served as JSON, CBOR or Smile depending on Accept
+            return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(resume);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -63,18 +123,11 @@ public class ResumeController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Resume> createResume(@RequestBody Resume resume) {
         String userId = getCurrentUserId();
-        String currentTime = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
-        
-        resume.setUserId(userId);
-        resume.setCreatedAt(currentTime);
-        resume.setUpdatedAt(currentTime);
-        
-        // Set default template if not provided
-        if (resume.getTemplate() == null || resume.getTemplate().isEmpty()) {
-            resume.setTemplate("default");
-        }
+        ResumeUpdates.initialize(resume, userId);
         
         Resume savedResume = resumeRepository.save(resume);
+        resumeHistoryService.recordCreated(savedResume);
+        analyticsService.record(AnalyticsMetric.RESUMES_CREATED);
         return ResponseEntity.ok(savedResume);
     }
 
@@ -83,7 +136,9 @@ public class ResumeController {
     public ResponseEntity<?> updateResume(@PathVariable String id, @RequestBody Resume resume) {
         String userId = getCurrentUserId();
         
-        Optional<Resume> resumeData = resumeRepository.findById(id);
+        Optional<Resume> resumeData = resumeWriteBuffer.isEnabled()
+                ? resumeWriteBuffer.find(id)
+                : resumeRepository.findById(id);
         
         if (resumeData.isPresent()) {
             Resume existingResume = resumeData.get();
@@ -93,24 +148,59 @@ public class ResumeController {
                 return ResponseEntity.status(403).body(new MessageResponse("You don't have permission to update this resume"));
             }
             
-            // Update fields
-            existingResume.setName(resume.getName());
-            existingResume.setPersonalInfo(resume.getPersonalInfo());
-            existingResume.setExperience(resume.getExperience());
-            existingResume.setEducation(resume.getEducation());
-            existingResume.setSkills(resume.getSkills());
-            existingResume.setProjects(resume.getProjects());
-            existingResume.setAchievements(resume.getAchievements());
-            existingResume.setTemplate(resume.getTemplate());
-            existingResume.setUpdatedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+            // Autosave bursts: merge into the pending write instead of hitting Mongo on every keystroke
+            analyticsService.record(AnalyticsMetric.RESUMES_UPDATED);
+            if (resumeWriteBuffer.isEnabled()) {
+                return resumeWriteBuffer.stage(id, pending -> ResumeUpdates.applyUpdate(pending, resume))
+                        .<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            }
             
+            Resume previous = resumeHistoryService.capture(existingResume);
+            ResumeUpdates.applyUpdate(existingResume, resume);
             Resume updatedResume = resumeRepository.save(existingResume);
+            resumeHistoryService.recordChange(previous, updatedResume);
             return ResponseEntity.ok(updatedResume);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Writes only the sections present in the request, in a single ownership- and version-filtered findAndModify.
+     * Returns 409 if the resume was changed since the client's version (e.g. by another tab).
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> patchResume(@PathVariable String id, @Valid @RequestBody ResumePatchRequest patch) {
+        String userId = getCurrentUserId();
+
+        Update update = ResumeUpdates.buildSectionUpdate(patch);
+        if (update.getUpdateObject().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("No resume sections to update"));
+        }
+        update.set("updatedAt", ResumeUpdates.now());
+
+        // A buffered PUT must land first so the version check sees it
+        resumeWriteBuffer.flush(id);
+        Resume patchedResume = resumeRepository.patchResume(id, userId, patch.getVersion(), update);
+        if (patchedResume != null) {
+            resumeHistoryService.recordSections(patchedResume, update.getUpdateObject().get("$set", Document.class).keySet());
+            analyticsService.record(AnalyticsMetric.RESUMES_UPDATED);
+            return ResponseEntity.ok(patchedResume);
+        }
+
+        // Nothing matched: work out why (only on the failure path)
+        Optional<Resume> resumeData = resumeRepository.findById(id);
+        if (resumeData.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!resumeData.get().getUserId().equals(userId)) {
+            return ResponseEntity.status(403).body(new MessageResponse("You don't have permission to update this resume"));
+        }
+        return ResponseEntity.status(409).body(new MessageResponse("Resume was modified elsewhere. Reload it and try again."));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> deleteResume(@PathVariable String id) {
@@ -126,13 +216,93 @@ public class ResumeController {
                 return ResponseEntity.status(403).body(new MessageResponse("You don't have permission to delete this resume"));
             }
             
+            resumeWriteBuffer.discard(id);
             resumeRepository.deleteById(id);
+            resumeHistoryService.deleteHistory(id);
             return ResponseEntity.ok(new MessageResponse("Resume deleted successfully"));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getHistory(@PathVariable String id) {
+        Optional<Resume> resumeData = findOwned(id);
+        if (resumeData.isEmpty()) {
+            return notFoundOrForbidden(id);
+        }
+        List<ResumeRevisionSummary> revisions = resumeHistoryService.listRevisions(id, HISTORY_LIST_LIMIT);
+        return ResponseEntity.ok(revisions);
+    }
+
+    @GetMapping("/{id}/history/{version}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getRevision(@PathVariable String id, @PathVariable long version) {
+        Optional<Resume> resumeData = findOwned(id);
+        if (resumeData.isEmpty()) {
+            return notFoundOrForbidden(id);
+        }
+        return resumeHistoryService.reconstruct(resumeData.get(), version)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(new MessageResponse("Version " + version + " is not available")));
+    }
+
+    @GetMapping("/{id}/history/diff")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> diffRevisions(@PathVariable String id, @RequestParam long from, @RequestParam long to) {
+        Optional<Resume> resumeData = findOwned(id);
+        if (resumeData.isEmpty()) {
+            return notFoundOrForbidden(id);
+        }
+        Optional<Resume> fromState = resumeHistoryService.reconstruct(resumeData.get(), from);
+        Optional<Resume> toState = resumeHistoryService.reconstruct(resumeData.get(), to);
+        if (fromState.isEmpty() || toState.isEmpty()) {
+            long missing = fromState.isEmpty() ? from : to;
+            return ResponseEntity.status(404).body(new MessageResponse("Version " + missing + " is not available"));
+        }
+        ResumeDiffResponse diff = resumeHistoryService.diff(fromState.get(), toState.get());
+        return ResponseEntity.ok(diff);
+    }
+
+    /**
+     * Restores an earlier version by saving its contents as a new version; history is never rewritten.
+     */
+    @PostMapping("/{id}/history/{version}/restore")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> restoreRevision(@PathVariable String id, @PathVariable long version) {
+        Optional<Resume> resumeData = findOwned(id);
+        if (resumeData.isEmpty()) {
+            return notFoundOrForbidden(id);
+        }
+        Resume existingResume = resumeData.get();
+        Optional<Resume> restored = resumeHistoryService.reconstruct(existingResume, version);
+        if (restored.isEmpty()) {
+            return ResponseEntity.status(404).body(new MessageResponse("Version " + version + " is not available"));
+        }
+
+        Resume previous = resumeHistoryService.capture(existingResume);
+        ResumeUpdates.applyUpdate(existingResume, restored.get());
+        Resume updatedResume = resumeRepository.save(existingResume);
+        resumeHistoryService.recordChange(previous, updatedResume);
+        analyticsService.record(AnalyticsMetric.RESUMES_UPDATED);
+        return ResponseEntity.ok(updatedResume);
+    }
+
+    // Flushes any buffered write so history and the stored document agree, then loads the resume if the caller owns it
+    private Optional<Resume> findOwned(String id) {
+        resumeWriteBuffer.flush(id);
+        String userId = getCurrentUserId();
+        return resumeRepository.findById(id).filter(resume -> resume.getUserId().equals(userId));
+    }
+
+    private ResponseEntity<?> notFoundOrForbidden(String id) {
+        if (!resumeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(403).body(new MessageResponse("You don't have permission to access this resume"));
+    }
+
     @GetMapping("/templates")
     public ResponseEntity<List<String>> getAvailableTemplates() {
         // Return a list of available templates
@@ -1,87 +1,77 @@
 package com.resumebuilder.controller;
 
 import com.resumebuilder.service.LatexTemplateService;
+import com.resumebuilder.service.PdfPreviewService;
+import com.resumebuilder.service.RenderScheduler;
+import com.resumebuilder.service.TemplateCatalogService;
 import com.resumebuilder.payload.response.MessageResponse;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.ResourcePatternResolver;
+import com.resumebuilder.util.ETags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/templates")
+@Profile("!reactive")
 public class TemplateController {
 
     private final LatexTemplateService latexTemplateService;
-    private final ResourcePatternResolver resourcePatternResolver;
+    private final TemplateCatalogService templateCatalogService;
+    private final PdfPreviewService pdfPreviewService;
 
-    private static final List<Map<String, Object>> HTML_ONLY_TEMPLATES = List.of(
-            createTemplate("default",      "Default",      "The standard modern resume template",                  false),
-            createTemplate("classic",      "Classic",      "Timeless black & white — trusted by recruiters worldwide", false),
-            createTemplate("jake",         "Jake",         "LaTeX-style academic resume — gold standard for tech roles", false),
-            createTemplate("modern",       "Modern",       "Dark sidebar with skill visualization — makes you stand out", false),
-            createTemplate("professional", "Professional", "Indigo accents, pill badges — perfect for corporate roles",  false),
-            createTemplate("creative",     "Creative",     "Timeline experience, emerald accents — for innovators",     false),
-            createTemplate("minimalist",   "Minimal",      "Ultra-clean with maximum whitespace — less is more",        false),
-            createTemplate("executive",    "Executive",    "Bold navy header — designed for senior leadership",         false)
-    );
+    // Templates only change on deploy; let clients reuse them briefly, then revalidate by ETag
+    private static final CacheControl TEMPLATE_CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
 
     public TemplateController(LatexTemplateService latexTemplateService,
-                             ResourcePatternResolver resourcePatternResolver) {
+                             TemplateCatalogService templateCatalogService,
+                             PdfPreviewService pdfPreviewService) {
         this.latexTemplateService = latexTemplateService;
-        this.resourcePatternResolver = resourcePatternResolver;
+        this.templateCatalogService = templateCatalogService;
+        this.pdfPreviewService = pdfPreviewService;
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllTemplates() {
-        Set<String> latexIds = discoverLatexTemplateIds();
-        List<Map<String, Object>> templates = new ArrayList<>();
-
-        for (Map<String, Object> t : HTML_ONLY_TEMPLATES) {
-            String id = (String) t.get("id");
-            if (!latexIds.contains(id)) {
-                templates.add(t);
-            }
-        }
-        for (String id : latexIds.stream().sorted().collect(Collectors.toList())) {
-            templates.add(createTemplate(id, getTemplateName(id), getTemplateDescription(id), true));
+    public ResponseEntity<Map<String, Object>> getAllTemplates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = templateCatalogService.catalogEtag();
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).build();
         }
-        // Sort so "default" stays first, then by id
-        templates.sort(Comparator.comparing((Map<String, Object> m) -> "default".equals(m.get("id")) ? "" : (String) m.get("id")));
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("templates", templates);
-        response.put("total", templates.size());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).body(templateCatalogService.catalog());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getTemplateById(@PathVariable String id) {
-        if (latexTemplateService.hasTemplate(id)) {
-            Map<String, Object> template = createTemplate(id, getTemplateName(id), getTemplateDescription(id), true);
-            try {
-                String latex = latexTemplateService.loadTemplate(id);
-                if (latex != null) template.put("latex", latex);
-            } catch (IOException ignored) {}
-            return ResponseEntity.ok(template);
-        }
-        if (HTML_ONLY_TEMPLATES.stream().anyMatch(t -> id.equals(t.get("id")))) {
-            Map<String, Object> template = createTemplate(id, getTemplateName(id), getTemplateDescription(id), false);
+        Map<String, Object> template = templateCatalogService.findTemplate(id);
+        if (template != null) {
             return ResponseEntity.ok(template);
         }
         return ResponseEntity.status(404).body(new MessageResponse("Template not found"));
     }
 
     @GetMapping("/{id}/latex")
-    public ResponseEntity<?> getTemplateLatex(@PathVariable String id) {
+    public ResponseEntity<?> getTemplateLatex(@PathVariable String id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (!latexTemplateService.hasTemplate(id)) {
             return ResponseEntity.status(404).body(new MessageResponse("Template not found or does not have LaTeX content"));
         }
         try {
+            String contentHash = latexTemplateService.contentHash(id);
+            String etag = contentHash != null ? ETags.forContent(id, contentHash) : null;
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).build();
+            }
             String latex = latexTemplateService.loadTemplate(id);
             if (latex == null) {
                 return ResponseEntity.status(404).body(new MessageResponse("Template not found or does not have LaTeX content"));
@@ -89,58 +79,41 @@ public class TemplateController {
             Map<String, Object> response = new HashMap<>();
             response.put("id", id);
             response.put("latex", latex);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).body(response);
         } catch (IOException e) {
             return ResponseEntity.status(404).body(new MessageResponse("Template not found or does not have LaTeX content"));
         }
     }
 
-    private Set<String> discoverLatexTemplateIds() {
-        Set<String> ids = new HashSet<>();
+    /** Gallery thumbnail: the first page of the template rendered with the sample resume, as PNG. */
+    @GetMapping("/{id}/preview")
+    public ResponseEntity<?> getTemplatePreview(@PathVariable String id,
+                                                @RequestParam(defaultValue = "" + PdfPreviewService.DEFAULT_WIDTH) int width,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (width < PdfPreviewService.MIN_WIDTH || width > PdfPreviewService.MAX_WIDTH) {
+            return ResponseEntity.badRequest().body(new MessageResponse("width must be between "
+                    + PdfPreviewService.MIN_WIDTH + " and " + PdfPreviewService.MAX_WIDTH));
+        }
+        if (!latexTemplateService.hasTemplate(id)) {
+            return ResponseEntity.status(404).body(new MessageResponse("Template not found or does not have LaTeX content"));
+        }
         try {
-            Resource[] resources = resourcePatternResolver.getResources("classpath:templates/latex/*.tex");
-            for (Resource r : resources) {
-                String filename = r.getFilename();
-                if (filename != null && filename.endsWith(".tex")) {
-                    ids.add(filename.substring(0, filename.length() - 4));
-                }
+            String etag = ETags.forContent("template-preview", id, latexTemplateService.contentHash(id), String.valueOf(width));
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).build();
             }
-        } catch (IOException ignored) {}
-        return ids;
-    }
-
-    private static Map<String, Object> createTemplate(String id, String name, String description, boolean hasLatex) {
-        Map<String, Object> template = new HashMap<>();
-        template.put("id", id);
-        template.put("name", name);
-        template.put("description", description);
-        template.put("hasLatex", hasLatex);
-        return template;
-    }
-
-    private String getTemplateName(String id) {
-        switch (id) {
-            case "default": return "Default";
-            case "jake": return "Jake";
-            case "modern": return "Modern";
-            case "professional": return "Professional";
-            case "creative": return "Creative";
-            case "minimal": return "Minimal";
-            case "executive": return "Executive";
-            default: return id.isEmpty() ? id : id.substring(0, 1).toUpperCase() + id.substring(1);
-        }
-    }
-
-    private String getTemplateDescription(String id) {
-        switch (id) {
-            case "default": return "The standard modern resume template";
-            case "jake": return "LaTeX-based academic resume template inspired by Jake Gutierrez";
-            case "modern": return "A clean, contemporary design with a professional look";
-            case "professional": return "Traditional layout perfect for corporate environments";
-            case "creative": return "Unique design for creative industries";
-            case "minimal": return "Simple, elegant design with focus on content";
-            case "executive": return "Sophisticated design for senior positions";
-            default: return "LaTeX template: " + id;
+            byte[] png = pdfPreviewService.preview(pdfPreviewService.sampleResume(id), id, 1, width,
+                    RenderScheduler.Requester.of(SecurityContextHolder.getContext().getAuthentication()));
+            if (png == null) {
+                return ResponseEntity.status(404).body(new MessageResponse("No preview for this template"));
+            }
+            return ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).body(png);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(new MessageResponse("Preview is being rendered, retry shortly"));
+        } catch (IOException e) {
+            return ResponseEntity.status(404).body(new MessageResponse("No preview for this template"));
         }
     }
 }
@@ -0,0 +1,115 @@
+package com.resumebuilder.controller.reactive;
+
+import com.resumebuilder.model.AnalyticsMetric;
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.repository.reactive.ReactiveResumeRepository;
+import com.resumebuilder.service.AnalyticsService;
+import com.resumebuilder.service.LatexPdfService;
+import com.resumebuilder.service.LatexTemplateService;
+import com.resumebuilder.service.ReactivePdfRenderer;
+import com.resumebuilder.service.RenderScheduler;
+import com.resumebuilder.util.ETags;
+import com.resumebuilder.util.ResponseFormats;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking edition of PdfController for the "reactive" profile. pdflatex is awaited without holding a thread and
+ * the PDF is streamed to the client as DataBuffer chunks; the JSON fallback is unchanged.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/pdf")
+@Profile("reactive")
+public class ReactivePdfController {
+
+    private final ReactiveResumeRepository resumeRepository;
+    private final LatexTemplateService latexTemplateService;
+    private final LatexPdfService latexPdfService;
+    private final ReactivePdfRenderer reactivePdfRenderer;
+    private final AnalyticsService analyticsService;
+
+    public ReactivePdfController(ReactiveResumeRepository resumeRepository, LatexTemplateService latexTemplateService,
+                                 LatexPdfService latexPdfService, ReactivePdfRenderer reactivePdfRenderer,
+                                 AnalyticsService analyticsService) {
+        this.resumeRepository = resumeRepository;
+        this.latexTemplateService = latexTemplateService;
+        this.latexPdfService = latexPdfService;
+        this.reactivePdfRenderer = reactivePdfRenderer;
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<ResponseEntity<?>> generatePdf(@PathVariable String id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                               ServerWebExchange exchange) {
+        return resumeRepository.findById(id)
+                .flatMap(resume -> renderOrFallback(resume, ifNoneMatch, accept, exchange.getResponse().bufferFactory()))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Resume not found"));
+    }
+
+    private Mono<ResponseEntity<?>> renderOrFallback(Resume resume, String ifNoneMatch, String accept,
+                                                     DataBufferFactory bufferFactory) {
+        String templateId = resume.getTemplate() != null ? resume.getTemplate().trim() : null;
+        if (templateId == null || templateId.isBlank() || !latexPdfService.isLatexEnabled()) {
+            return Mono.just(fallback(resume, accept));
+        }
+        // Template lookups read the classpath, so they run on the elastic pool along with the ETag hash
+        return Mono.fromCallable(() -> latexTemplateService.hasTemplate(templateId)
+                        ? ETags.forPdf(resume, templateId, latexTemplateService.contentHash(templateId))
+                        : null)
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>flatMap(etag -> {
+                    // Same resume state + same template content = same PDF, so a match skips pdflatex entirely
+                    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+                    if (ETags.matches(ifNoneMatch, etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build());
+                    }
+                    return ReactiveSecurityContextHolder.getContext()
+                            .map(context -> RenderScheduler.Requester.of(context.getAuthentication()))
+                            .defaultIfEmpty(RenderScheduler.Requester.SYSTEM)
+                            .flatMap(requester -> reactivePdfRenderer.render(resume, templateId, requester))
+                            .map(pdf -> {
+                                analyticsService.record(AnalyticsMetric.PDF_RENDERS);
+                                return ResponseEntity.ok()
+                                        .contentType(MediaType.APPLICATION_PDF)
+                                        .contentLength(pdf.size())
+                                        .eTag(etag)
+                                        .cacheControl(cacheControl)
+                                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                ContentDisposition.formData().name("attachment").filename(filename(resume)).build().toString())
+                                        .body(pdf.content(bufferFactory));
+                            });
+                })
+                .onErrorResume(e -> Mono.empty())
+                // No LaTeX template or compilation failed: return the resume data so frontend can use html2canvas fallback
+                .switchIfEmpty(Mono.fromSupplier(() -> fallback(resume, accept)));
+    }
+
+    private static ResponseEntity<?> fallback(Resume resume, String accept) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(ResponseFormats.dataFallback(accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(resume);
+    }
+
+    private static String filename(Resume resume) {
+        return (resume.getPersonalInfo() != null && resume.getPersonalInfo().getName() != null)
+                ? resume.getPersonalInfo().getName().replaceAll("[^a-zA-Z0-9.-]", "_") + ".pdf"
+                : "resume.pdf";
+    }
+}
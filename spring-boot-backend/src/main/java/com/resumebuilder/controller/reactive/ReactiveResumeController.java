@@ -0,0 +1,161 @@
+package com.resumebuilder.controller.reactive;
+
+import com.resumebuilder.model.AnalyticsMetric;
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.payload.request.ResumePatchRequest;
+import com.resumebuilder.payload.response.MessageResponse;
+import com.resumebuilder.repository.reactive.ReactiveResumeRepository;
+import com.resumebuilder.security.services.UserDetailsImpl;
+import com.resumebuilder.service.AnalyticsService;
+import com.resumebuilder.service.ResumeHistoryService;
+import com.resumebuilder.util.ETags;
+import com.resumebuilder.util.ResumeUpdates;
+import jakarta.validation.Valid;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Non-blocking edition of ResumeController for the "reactive" profile (CRUD and PATCH).
+ * Writes are not coalesced by ResumeWriteBuffer here. Revisions are still recorded; ResumeHistoryService is blocking,
+ * so it runs on the bounded elastic pool. Search and history endpoints are only served by servlet nodes.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/resumes")
+@Profile("reactive")
+public class ReactiveResumeController {
+
+    private final ReactiveResumeRepository resumeRepository;
+    private final ResumeHistoryService resumeHistoryService;
+    private final AnalyticsService analyticsService;
+
+    public ReactiveResumeController(ReactiveResumeRepository resumeRepository,
+                                    ResumeHistoryService resumeHistoryService,
+                                    AnalyticsService analyticsService) {
+        this.resumeRepository = resumeRepository;
+        this.resumeHistoryService = resumeHistoryService;
+        this.analyticsService = analyticsService;
+    }
+
+    private Mono<String> getCurrentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> ((UserDetailsImpl) context.getAuthentication().getPrincipal()).getId());
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Flux<Resume> getAllResumes() {
+        return getCurrentUserId().flatMapMany(resumeRepository::findByUserIdOrderByUpdatedAtDesc);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<ResponseEntity<?>> getResumeById(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return getCurrentUserId().flatMap(userId -> resumeRepository.findById(id)
+                .<ResponseEntity<?>>map(resume -> {
+                    if (!resume.getUserId().equals(userId)) {
+                        return ResponseEntity.status(403).body(new MessageResponse("You don't have permission to access this resume"));
+                    }
+                    String etag = ETags.forResume(resume);
+                    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+                    if (ETags.matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(resume);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<Resume> createResume(@RequestBody Resume resume) {
+        return getCurrentUserId().flatMap(userId -> {
+            ResumeUpdates.initialize(resume, userId);
+            return resumeRepository.save(resume);
+        }).flatMap(savedResume -> recordHistory(() -> resumeHistoryService.recordCreated(savedResume))
+                .doOnSuccess(ignored -> analyticsService.record(AnalyticsMetric.RESUMES_CREATED))
+                .thenReturn(savedResume));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<ResponseEntity<?>> updateResume(@PathVariable String id, @RequestBody Resume resume) {
+        return getCurrentUserId().flatMap(userId -> resumeRepository.findById(id)
+                .<ResponseEntity<?>>flatMap(existingResume -> {
+                    if (!existingResume.getUserId().equals(userId)) {
+                        return Mono.just(ResponseEntity.status(403).body(new MessageResponse("You don't have permission to update this resume")));
+                    }
+                    Resume previous = resumeHistoryService.capture(existingResume);
+                    ResumeUpdates.applyUpdate(existingResume, resume);
+                    return resumeRepository.save(existingResume)
+                            .flatMap(updatedResume -> recordHistory(() -> resumeHistoryService.recordChange(previous, updatedResume))
+                                    .doOnSuccess(ignored -> analyticsService.record(AnalyticsMetric.RESUMES_UPDATED))
+                                    .thenReturn(ResponseEntity.ok(updatedResume)));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Same contract as the servlet PATCH: only the sections sent are written, guarded by the client's version (409 if stale).
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<ResponseEntity<?>> patchResume(@PathVariable String id, @Valid @RequestBody ResumePatchRequest patch) {
+        Update update = ResumeUpdates.buildSectionUpdate(patch);
+        if (update.getUpdateObject().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(new MessageResponse("No resume sections to update")));
+        }
+        update.set("updatedAt", ResumeUpdates.now());
+        List<String> sections = List.copyOf(update.getUpdateObject().get("$set", Document.class).keySet());
+
+        return getCurrentUserId().flatMap(userId -> resumeRepository.patchResume(id, userId, patch.getVersion(), update)
+                .<ResponseEntity<?>>flatMap(patchedResume -> recordHistory(() -> resumeHistoryService.recordSections(patchedResume, sections))
+                        .doOnSuccess(ignored -> analyticsService.record(AnalyticsMetric.RESUMES_UPDATED))
+                        .thenReturn(ResponseEntity.ok(patchedResume)))
+                // Nothing matched: work out why (only on the failure path)
+                .switchIfEmpty(Mono.defer(() -> resumeRepository.findById(id)
+                        .<ResponseEntity<?>>map(existing -> existing.getUserId().equals(userId)
+                                ? ResponseEntity.status(409).body(new MessageResponse("Resume was modified elsewhere. Reload it and try again."))
+                                : ResponseEntity.status(403).body(new MessageResponse("You don't have permission to update this resume")))
+                        .defaultIfEmpty(ResponseEntity.notFound().build()))));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<ResponseEntity<?>> deleteResume(@PathVariable String id) {
+        return getCurrentUserId().flatMap(userId -> resumeRepository.findById(id)
+                .<ResponseEntity<?>>flatMap(existingResume -> {
+                    if (!existingResume.getUserId().equals(userId)) {
+                        return Mono.just(ResponseEntity.status(403).body(new MessageResponse("You don't have permission to delete this resume")));
+                    }
+                    return resumeRepository.deleteById(id)
+                            .then(recordHistory(() -> resumeHistoryService.deleteHistory(id)))
+                            .thenReturn(ResponseEntity.ok(new MessageResponse("Resume deleted successfully")));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/templates")
+    public Mono<List<String>> getAvailableTemplates() {
+        return Mono.just(List.of("modern", "professional", "creative", "minimal", "executive"));
+    }
+
+    // ResumeHistoryService uses the blocking driver; keep it off the event loop
+    private static Mono<Void> recordHistory(Runnable action) {
+        return Mono.fromRunnable(action).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
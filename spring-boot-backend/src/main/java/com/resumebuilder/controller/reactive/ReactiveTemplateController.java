@@ -0,0 +1,84 @@
+package com.resumebuilder.controller.reactive;
+
+import com.resumebuilder.payload.response.MessageResponse;
+import com.resumebuilder.service.LatexTemplateService;
+import com.resumebuilder.service.TemplateCatalogService;
+import com.resumebuilder.util.ETags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking edition of TemplateController for the "reactive" profile. Templates are classpath resources,
+ * so the (rare) reads happen on the bounded elastic pool.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/templates")
+@Profile("reactive")
+public class ReactiveTemplateController {
+
+    private final LatexTemplateService latexTemplateService;
+    private final TemplateCatalogService templateCatalogService;
+
+    // Templates only change on deploy; let clients reuse them briefly, then revalidate by ETag
+    private static final CacheControl TEMPLATE_CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    public ReactiveTemplateController(LatexTemplateService latexTemplateService,
+                                      TemplateCatalogService templateCatalogService) {
+        this.latexTemplateService = latexTemplateService;
+        this.templateCatalogService = templateCatalogService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> getAllTemplates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return Mono.fromCallable(() -> {
+            String etag = templateCatalogService.catalogEtag();
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).<Map<String, Object>>build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).body(templateCatalogService.catalog());
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getTemplateById(@PathVariable String id) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+            Map<String, Object> template = templateCatalogService.findTemplate(id);
+            if (template != null) {
+                return ResponseEntity.ok(template);
+            }
+            return ResponseEntity.status(404).body(new MessageResponse("Template not found"));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/{id}/latex")
+    public Mono<ResponseEntity<?>> getTemplateLatex(@PathVariable String id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+            String contentHash = latexTemplateService.hasTemplate(id) ? latexTemplateService.contentHash(id) : null;
+            if (contentHash == null) {
+                return ResponseEntity.status(404).body(new MessageResponse("Template not found or does not have LaTeX content"));
+            }
+            String etag = ETags.forContent(id, contentHash);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", id);
+            response.put("latex", latexTemplateService.loadTemplate(id));
+            return ResponseEntity.ok().eTag(etag).cacheControl(TEMPLATE_CACHE_CONTROL).body(response);
+        }).subscribeOn(Schedulers.boundedElastic())
+                .onErrorReturn(ResponseEntity.status(404).body(new MessageResponse("Template not found or does not have LaTeX content")));
+    }
+}
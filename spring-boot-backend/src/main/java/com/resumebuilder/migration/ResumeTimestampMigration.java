@@ -0,0 +1,121 @@
+package com.resumebuilder.migration;
+
+import com.resumebuilder.config.MongoConfig;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Converts Resume.createdAt/updatedAt values still stored as ISO strings into BSON dates, online and in
+ * batches. Each update is conditional on the old string value, so concurrent saves by the app always win.
+ * Runs shortly after startup and then periodically until a run finds nothing left. Safe to run on several
+ * nodes at once. A value that cannot be parsed is moved aside to <field>Unparsed (e.g. createdAtUnparsed) for
+ * manual repair, so it no longer counts as pending and the migration can finish.
+ */
+@Component
+public class ResumeTimestampMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeTimestampMigration.class);
+    private static final String COLLECTION = "resumes";
+    private static final List<String> FIELDS = List.of("createdAt", "updatedAt");
+    private static final int BSON_STRING = 2;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${resumebuilder.migration.timestamps.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resumebuilder.migration.timestamps.batch-size:500}")
+    private int batchSize;
+
+    @Value("${resumebuilder.migration.timestamps.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    private volatile boolean completed;
+
+    public ResumeTimestampMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${resumebuilder.migration.timestamps.initial-delay-ms:30000}",
+            fixedDelayString = "${resumebuilder.migration.timestamps.interval-ms:3600000}")
+    public void run() {
+        if (!enabled || completed) return;
+        long converted = 0;
+        for (String field : FIELDS) {
+            converted += migrateField(field);
+        }
+        if (converted > 0) {
+            logger.info("Converted {} string resume timestamps to dates", converted);
+        }
+        completed = mongoTemplate.count(pendingQuery(), COLLECTION) == 0;
+    }
+
+    private long migrateField(String field) {
+        long converted = 0;
+        Object lastId = null;
+        while (true) {
+            Query query = new Query(Criteria.where(field).type(BSON_STRING))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            if (lastId != null) query.addCriteria(Criteria.where("_id").gt(lastId));
+            query.fields().include(field);
+            List<Document> batch = mongoTemplate.find(query, Document.class, COLLECTION);
+            if (batch.isEmpty()) return converted;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+            for (Document doc : batch) {
+                String value = doc.getString(field);
+                Query target = new Query(Criteria.where("_id").is(doc.get("_id")).and(field).is(value));
+                Update update;
+                try {
+                    Instant instant = MongoConfig.LegacyTimestampReadConverter.parse(value);
+                    update = instant != null ? new Update().set(field, Date.from(instant)) : new Update().unset(field);
+                } catch (DateTimeParseException e) {
+                    logger.warn("Moving unparseable {} '{}' on resume {} to {}",
+                            field, value, doc.get("_id"), unparsedField(field));
+                    update = new Update().rename(field, unparsedField(field));
+                }
+                bulk.updateOne(target, update);
+            }
+            converted += bulk.execute().getModifiedCount();
+            lastId = batch.get(batch.size() - 1).get("_id");
+            if (batch.size() < batchSize || !pause()) return converted;
+        }
+    }
+
+    private static String unparsedField(String field) {
+        return field + "Unparsed";
+    }
+
+    private Query pendingQuery() {
+        return new Query(new Criteria().orOperator(
+                Criteria.where("createdAt").type(BSON_STRING),
+                Criteria.where("updatedAt").type(BSON_STRING)));
+    }
+
+    // Spreads the migration load out between batches; returns false if interrupted (shutdown)
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
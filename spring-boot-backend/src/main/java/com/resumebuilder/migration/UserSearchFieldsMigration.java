@@ -0,0 +1,70 @@
+package com.resumebuilder.migration;
+
+import com.resumebuilder.model.User;
+import com.resumebuilder.model.UserSearchFieldsListener;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Backfills User.usernameLower/emailLower for users saved before those fields existed, online and in
+ * batches. Runs shortly after startup and then periodically until a run finds nothing left.
+ */
+@Component
+public class UserSearchFieldsMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchFieldsMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${resumebuilder.migration.user-search-fields.batch-size:500}")
+    private int batchSize;
+
+    private volatile boolean completed;
+
+    public UserSearchFieldsMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${resumebuilder.migration.user-search-fields.initial-delay-ms:30000}",
+            fixedDelayString = "${resumebuilder.migration.user-search-fields.interval-ms:3600000}")
+    public void run() {
+        if (completed) return;
+        long updated = 0;
+        Object lastId = null;
+        while (true) {
+            Query query = new Query(Criteria.where("usernameLower").exists(false))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            if (lastId != null) query.addCriteria(Criteria.where("_id").gt(lastId));
+            query.fields().include("username", "email");
+            List<Document> batch = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(User.class));
+            if (batch.isEmpty()) break;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            for (Document doc : batch) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(doc.get("_id"))), new Update()
+                        .set("usernameLower", UserSearchFieldsListener.lower(doc.getString("username")))
+                        .set("emailLower", UserSearchFieldsListener.lower(doc.getString("email"))));
+            }
+            updated += bulk.execute().getModifiedCount();
+            lastId = batch.get(batch.size() - 1).get("_id");
+            if (batch.size() < batchSize) break;
+        }
+        if (updated > 0) {
+            logger.info("Backfilled search fields for {} users", updated);
+        }
+        completed = true;
+    }
+}
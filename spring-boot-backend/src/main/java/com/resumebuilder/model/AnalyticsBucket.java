@@ -0,0 +1,47 @@
+package com.resumebuilder.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Pre-aggregated event count for one metric over one hour or one (UTC) day.
+ * The id is derived from metric, granularity and bucket start so flushes can upsert with $inc.
+ */
+@Data
+@Document(collection = "analytics_buckets")
+@CompoundIndex(name = "metric_granularity_bucketStart", def = "{'metric': 1, 'granularity': 1, 'bucketStart': 1}")
+public class AnalyticsBucket {
+    @Id
+    private String id;
+    private String metric;
+    private Granularity granularity;
+    private Instant bucketStart;
+    private long count;
+
+    public enum Granularity {
+        HOUR(3600),
+        DAY(86400);
+
+        private final long seconds;
+
+        Granularity(long seconds) {
+            this.seconds = seconds;
+        }
+
+        public long getSeconds() {
+            return seconds;
+        }
+
+        public Instant bucketStart(Instant instant) {
+            return Instant.ofEpochSecond(Math.floorDiv(instant.getEpochSecond(), seconds) * seconds);
+        }
+    }
+
+    public static String idFor(String metric, Granularity granularity, Instant bucketStart) {
+        return metric + ":" + granularity.name().toLowerCase() + ":" + bucketStart.getEpochSecond();
+    }
+}
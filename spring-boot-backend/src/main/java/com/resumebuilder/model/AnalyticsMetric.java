@@ -0,0 +1,36 @@
+package com.resumebuilder.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Events counted (or, for the byte metrics, quantities summed) into time buckets for the admin dashboard.
+ */
+public enum AnalyticsMetric {
+    SIGNUPS("signups"),
+    RESUMES_CREATED("resumes-created"),
+    RESUMES_UPDATED("resumes-updated"),
+    PDF_RENDERS("pdf-renders"),
+    PDF_COMPILES("pdf-compiles"),
+    PDF_COMPILE_PASSES("pdf-compile-passes"),
+    PDF_COMPILE_FAILURES("pdf-compile-failures"),
+    PDF_COMPILES_CANCELLED("pdf-compiles-cancelled"),
+    PDF_BREAKER_REJECTIONS("pdf-breaker-rejections"),
+    // Byte totals of compiled PDFs before and after PdfOptimizer
+    PDF_BYTES_RAW("pdf-bytes-raw"),
+    PDF_BYTES_OPTIMIZED("pdf-bytes-optimized");
+
+    private final String key;
+
+    AnalyticsMetric(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Optional<AnalyticsMetric> fromKey(String key) {
+        return Arrays.stream(values()).filter(m -> m.key.equalsIgnoreCase(key)).findFirst();
+    }
+}
@@ -0,0 +1,32 @@
+package com.resumebuilder.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Record of a finished user purge, keyed by the user id, so the purge status can still be reported once the user
+ * document is gone. Mongo removes it after 30 days.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "purged_users")
+public class PurgedUser {
+    @Id
+    private String userId;
+    private Instant deletedAt;
+    private long purgedResumes;
+    @Indexed(expireAfter = "30d")
+    private Instant purgedAt;
+
+    public PurgedUser(String userId, Instant deletedAt, long purgedResumes, Instant purgedAt) {
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+        this.purgedResumes = purgedResumes;
+        this.purgedAt = purgedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.resumebuilder.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A PDF render waiting for, or claimed by, a render worker. The id is the PDF cache key, so identical renders
+ * requested by any number of API nodes share one task. A task is claimable once visibleAt has passed: immediately
+ * when queued, at lease expiry while a worker holds it (the worker pushes it forward with heartbeats), and after a
+ * backoff when a failed attempt is retried. Finished tasks expire after a day.
+ */
+@Data
+@Document(collection = "render_tasks")
+@CompoundIndex(name = "status_visibleAt", def = "{'status': 1, 'visibleAt': 1}")
+public class RenderTask {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Id
+    private String id;
+    private String source;
+    private String resumeId;
+    private String userId;
+    private String templateId;
+    private Status status;
+    private int attempts;
+    private String leaseOwner;
+    private Instant visibleAt;
+    private Instant createdAt;
+    private String error;
+    @Indexed(expireAfter = "1d")
+    private Instant finishedAt;
+}
@@ -3,21 +3,31 @@ package com.resumebuilder.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Searchable text (resume name, headline, summary, experience, skills, projects, achievements) is covered by
+ * a single Mongo text index built from the @TextIndexed fields; weights favour titles, companies and skills.
+ */
 @Data
 @Document(collection = "resumes")
+@CompoundIndex(name = "userId_updatedAt", def = "{'userId': 1, 'updatedAt': -1}")
 public class Resume {
     @Id
     private String id;
     private String userId;
+    @TextIndexed(weight = 3)
     private String name;
-    private String createdAt;
-    private String updatedAt;
+    private Instant createdAt;
+    private Instant updatedAt;
     private String template;
+    private Long version;
     
     private PersonalInfo personalInfo;
     private List<Experience> experience = new ArrayList<>();
@@ -29,10 +39,12 @@ public class Resume {
     @Data
     public static class PersonalInfo {
         private String name;
+        @TextIndexed(weight = 3)
         private String title;
         private String email;
         private String phone;
         private String location;
+        @TextIndexed
         private String summary;
         private String linkedin;
         private String github;
@@ -41,18 +53,23 @@ public class Resume {
     @Data
     public static class Experience {
         private String id;
+        @TextIndexed(weight = 3)
         private String title;
+        @TextIndexed(weight = 3)
         private String company;
         private String location;
         private String startDate;
         private String endDate;
+        @TextIndexed
         private String description;
     }
     
     @Data
     public static class Education {
         private String id;
+        @TextIndexed(weight = 2)
         private String degree;
+        @TextIndexed(weight = 2)
         private String school;
         private String location;
         private String startDate;
@@ -63,6 +80,7 @@ public class Resume {
     @Data
     public static class Skill {
         private String id;
+        @TextIndexed(weight = 3)
         private String name;
         private String level;
     }
@@ -70,8 +88,11 @@ public class Resume {
     @Data
     public static class Project {
         private String id;
+        @TextIndexed(weight = 2)
         private String name;
+        @TextIndexed
         private String description;
+        @TextIndexed(weight = 3)
         private String technologies;
         private String startDate;
         private String endDate;
@@ -80,8 +101,11 @@ public class Resume {
      @Data
     public static class Achievement {
         private String id;
+        @TextIndexed(weight = 2)
         private String name;
+        @TextIndexed
         private String description;
+        @TextIndexed(weight = 2)
         private String technologies;
         private String url;
     }
@@ -0,0 +1,41 @@
+package com.resumebuilder.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry in a resume's version history. Full revisions hold every section; delta revisions hold only the
+ * sections listed in `changed` (null fields are not stored). A version is rebuilt from the nearest full
+ * revision at or below it plus the deltas after that. Entries expire after 90 days.
+ */
+@Data
+@Document(collection = "resume_revisions")
+@CompoundIndex(name = "resumeId_version", def = "{'resumeId': 1, 'version': -1}")
+public class ResumeRevision {
+    @Id
+    private String id;
+    private String resumeId;
+    @Indexed
+    private String userId;
+    private long version;
+    private boolean full;
+    private List<String> changed = new ArrayList<>();
+    @Indexed(expireAfter = "90d")
+    private Instant createdAt;
+
+    private String name;
+    private String template;
+    private Resume.PersonalInfo personalInfo;
+    private List<Resume.Experience> experience;
+    private List<Resume.Education> education;
+    private List<Resume.Skill> skills;
+    private List<Resume.Project> projects;
+    private List<Resume.Achievement> achievements;
+}
@@ -0,0 +1,33 @@
+package com.resumebuilder.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A revoked JWT, keyed by its jti. Mongo removes the entry once the token would have expired anyway.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String jti;
+    private String userId;
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+    // Nodes poll for entries newer than their last sync
+    @Indexed
+    private Instant revokedAt;
+
+    public RevokedToken(String jti, String userId, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+}
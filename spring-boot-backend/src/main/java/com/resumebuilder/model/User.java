@@ -3,8 +3,10 @@ package com.resumebuilder.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -16,5 +18,18 @@ public class User {
     private String username;
     private String email;
     private String password;
+
+    // Lowercased copies for indexed, anchored prefix search; kept in sync by UserSearchFieldsListener
+    @Indexed
+    private String usernameLower;
+    @Indexed
+    private String emailLower;
+
+    @Indexed
     private Set<String> roles = new HashSet<>();
+
+    // Set when an admin deletes the user; UserPurgeService then removes their resumes and finally the user
+    @Indexed(sparse = true)
+    private Instant deletedAt;
+    private long purgedResumes;
 }
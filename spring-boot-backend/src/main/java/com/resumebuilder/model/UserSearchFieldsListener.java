@@ -0,0 +1,25 @@
+package com.resumebuilder.model;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Keeps User.usernameLower/emailLower in sync on every repository save.
+ */
+@Component
+public class UserSearchFieldsListener extends AbstractMongoEventListener<User> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<User> event) {
+        User user = event.getSource();
+        user.setUsernameLower(lower(user.getUsername()));
+        user.setEmailLower(lower(user.getEmail()));
+    }
+
+    public static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
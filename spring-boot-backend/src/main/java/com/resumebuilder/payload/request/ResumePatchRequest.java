@@ -0,0 +1,26 @@
+package com.resumebuilder.payload.request;
+
+import com.resumebuilder.model.Resume;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Partial resume update. Only non-null sections are written; version must match
+ * the stored resume version or the update is rejected with 409.
+ */
+@Data
+public class ResumePatchRequest {
+    @NotNull
+    private Long version;
+
+    private String name;
+    private String template;
+    private Resume.PersonalInfo personalInfo;
+    private List<Resume.Experience> experience;
+    private List<Resume.Education> education;
+    private List<Resume.Skill> skills;
+    private List<Resume.Project> projects;
+    private List<Resume.Achievement> achievements;
+}
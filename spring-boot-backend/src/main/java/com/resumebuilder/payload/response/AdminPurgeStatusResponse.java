@@ -0,0 +1,14 @@
+package com.resumebuilder.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AdminPurgeStatusResponse {
+    private String userId;
+    private String deletedAt;
+    private long purgedResumes;
+    private long remainingResumes;
+    private boolean completed;
+}
@@ -0,0 +1,21 @@
+package com.resumebuilder.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AdminTimeSeriesResponse {
+    private String metric;
+    private String granularity;
+    private List<Point> points;
+
+    @Data
+    @AllArgsConstructor
+    public static class Point {
+        private String bucketStart;
+        private long count;
+    }
+}
@@ -0,0 +1,22 @@
+package com.resumebuilder.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ResumeDiffResponse {
+    private long fromVersion;
+    private long toVersion;
+    // Only sections that differ, keyed by section name (name, template, personalInfo, experience, ...)
+    private Map<String, Change> changes;
+
+    @Data
+    @AllArgsConstructor
+    public static class Change {
+        private Object from;
+        private Object to;
+    }
+}
@@ -0,0 +1,22 @@
+package com.resumebuilder.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ResumeImportResponse {
+    private long imported;
+    private long failed;
+    // First errors only (see ResumeTransferService.MAX_REPORTED_ERRORS); failed has the full count
+    private List<LineError> errors;
+
+    @Data
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.resumebuilder.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ResumeRevisionSummary {
+    private long version;
+    private boolean full;
+    private List<String> changed;
+    private String createdAt;
+}
@@ -0,0 +1,15 @@
+package com.resumebuilder.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ResumeSearchHit {
+    private String id;
+    private String name;
+    private String userId;
+    private String template;
+    private String updatedAt;
+    private double score;
+}
@@ -0,0 +1,12 @@
+package com.resumebuilder.repository;
+
+import com.resumebuilder.model.AnalyticsBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AnalyticsBucketRepository extends MongoRepository<AnalyticsBucket, String> {
+    List<AnalyticsBucket> findByMetricAndGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+            String metric, AnalyticsBucket.Granularity granularity, Instant from);
+}
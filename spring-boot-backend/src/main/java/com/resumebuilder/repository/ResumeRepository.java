@@ -6,10 +6,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface ResumeRepository extends MongoRepository<Resume, String> {
+public interface ResumeRepository extends MongoRepository<Resume, String>, ResumeRepositoryCustom {
     List<Resume> findByUserId(String userId);
+    List<Resume> findByUserIdOrderByUpdatedAtDesc(String userId);
     Page<Resume> findByUserId(String userId, Pageable pageable);
-    void deleteByUserId(String userId);
+    List<Resume> findByUserIdNotIn(Collection<String> userIds);
+    Page<Resume> findByUserIdNotIn(Collection<String> userIds, Pageable pageable);
+    long countByUserId(String userId);
 }
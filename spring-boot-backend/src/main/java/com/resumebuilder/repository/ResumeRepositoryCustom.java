@@ -0,0 +1,30 @@
+package com.resumebuilder.repository;
+
+import com.resumebuilder.model.Resume;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ResumeRepositoryCustom {
+    /**
+     * Applies the update to the resume only if it belongs to userId and is still at expectedVersion,
+     * bumping the version in the same findAndModify. Returns the updated resume, or null if no document matched.
+     */
+    Resume patchResume(String id, String userId, long expectedVersion, Update update);
+
+    /**
+     * Replaces the stored resume with this one only if it still exists at expectedVersion. Returns the stored
+     * resume, or null if it was changed or deleted in the meantime (nothing is written then).
+     */
+    Resume replaceIfVersion(Resume resume, long expectedVersion);
+
+    /** Number of resumes per user, counted in Mongo, for the given users only; users without resumes are absent. */
+    Map<String, Long> countByUserIds(Collection<String> userIds);
+
+    /** Number of resumes per user, counted in Mongo; users without resumes are absent. */
+    Map<String, Long> countPerUser();
+
+    /** Number of resumes per template, counted in Mongo; resumes without a template count as "default". */
+    Map<String, Long> countPerTemplate();
+}
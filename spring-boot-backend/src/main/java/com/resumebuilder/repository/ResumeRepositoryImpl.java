@@ -0,0 +1,81 @@
+package com.resumebuilder.repository;
+
+import com.resumebuilder.model.Resume;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResumeRepositoryImpl implements ResumeRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ResumeRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Resume patchResume(String id, String userId, long expectedVersion, Update update) {
+        Query query = new Query(Criteria.where("_id").is(id)
+                .and("userId").is(userId)
+                .and("version").in(versions(expectedVersion)));
+        update.inc("version", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Resume.class);
+    }
+
+    @Override
+    public Resume replaceIfVersion(Resume resume, long expectedVersion) {
+        Query query = new Query(Criteria.where("_id").is(resume.getId())
+                .and("version").in(versions(expectedVersion)));
+        return mongoTemplate.findAndReplace(query, resume, FindAndReplaceOptions.options().returnNew());
+    }
+
+    @Override
+    public Map<String, Long> countByUserIds(Collection<String> userIds) {
+        if (userIds.isEmpty()) return Map.of();
+        return countBy("userId", Aggregation.match(Criteria.where("userId").in(userIds)));
+    }
+
+    @Override
+    public Map<String, Long> countPerUser() {
+        return countBy("userId", null);
+    }
+
+    @Override
+    public Map<String, Long> countPerTemplate() {
+        Map<String, Long> counts = new HashMap<>();
+        countBy("template", null).forEach((template, count) ->
+                counts.merge(template != null && !template.isEmpty() ? template : "default", count, Long::sum));
+        return counts;
+    }
+
+    // Groups resumes (optionally filtered first) by the field; only one small document per group leaves Mongo
+    private Map<String, Long> countBy(String field, AggregationOperation match) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (match != null) stages.add(match);
+        stages.add(Aggregation.group(field).count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(Aggregation.newAggregation(stages), Resume.class, Document.class)) {
+            Object key = group.get("_id");
+            counts.put(key != null ? key.toString() : null, ((Number) group.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    // Resumes saved before versioning have no version field; treat them as version 0
+    private static List<Object> versions(long expectedVersion) {
+        return expectedVersion == 0 ? Arrays.asList(0L, null) : List.of(expectedVersion);
+    }
+}
@@ -0,0 +1,13 @@
+package com.resumebuilder.repository;
+
+import com.resumebuilder.model.ResumeRevision;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ResumeRevisionRepository extends MongoRepository<ResumeRevision, String> {
+    Optional<ResumeRevision> findFirstByResumeIdAndFullIsTrueAndVersionLessThanEqualOrderByVersionDesc(String resumeId, long version);
+    List<ResumeRevision> findByResumeIdAndVersionGreaterThanAndVersionLessThanEqualOrderByVersionAsc(String resumeId, long afterVersion, long version);
+    boolean existsByResumeIdAndVersion(String resumeId, long version);
+}
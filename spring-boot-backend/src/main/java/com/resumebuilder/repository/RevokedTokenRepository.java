@@ -0,0 +1,7 @@
+package com.resumebuilder.repository;
+
+import com.resumebuilder.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+}
@@ -1,16 +1,35 @@
-
 package com.resumebuilder.repository;
 
 import com.resumebuilder.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
-    Page<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String username, String email, Pageable pageable);
+
+    /** deleted=false selects active users, deleted=true users marked for background deletion. */
+    Page<User> findByDeletedAtExists(boolean deleted, Pageable pageable);
+    long countByDeletedAtExists(boolean deleted);
+    List<User> findByDeletedAtExists(boolean deleted);
+
+    /**
+     * Prefix search over the lowercased username/email fields, excluding users marked for deletion.
+     * The pattern must be an anchored, case-sensitive regex ("^prefix") so both indexes can be range-scanned.
+     */
+    @Query("{ 'deletedAt': { '$exists': false }, '$or': [ { 'usernameLower': { '$regex': ?0 } }, { 'emailLower': { '$regex': ?0 } } ] }")
+    Page<User> searchActiveByPrefix(String prefixPattern, Pageable pageable);
+
+    /**
+     * Count-only query on the roles index: active users whose roles array contains the role (users marked for
+     * deletion no longer count).
+     */
+    @Query(value = "{ 'roles': ?0, 'deletedAt': { '$exists': false } }", count = true)
+    long countByRole(String role);
 }
@@ -0,0 +1,12 @@
+package com.resumebuilder.repository.reactive;
+
+import com.resumebuilder.model.Resume;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of ResumeRepository, used by the controllers of the "reactive" profile.
+ */
+public interface ReactiveResumeRepository extends ReactiveMongoRepository<Resume, String>, ReactiveResumeRepositoryCustom {
+    Flux<Resume> findByUserIdOrderByUpdatedAtDesc(String userId);
+}
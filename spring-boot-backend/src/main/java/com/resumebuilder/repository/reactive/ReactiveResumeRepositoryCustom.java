@@ -0,0 +1,13 @@
+package com.resumebuilder.repository.reactive;
+
+import com.resumebuilder.model.Resume;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveResumeRepositoryCustom {
+    /**
+     * Same as ResumeRepositoryCustom.patchResume: applies the update only if the resume belongs to userId and is still
+     * at expectedVersion, bumping the version in one findAndModify. Emits the updated resume, or completes empty.
+     */
+    Mono<Resume> patchResume(String id, String userId, long expectedVersion, Update update);
+}
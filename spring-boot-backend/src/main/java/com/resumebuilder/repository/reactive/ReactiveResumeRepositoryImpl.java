@@ -0,0 +1,32 @@
+package com.resumebuilder.repository.reactive;
+
+import com.resumebuilder.model.Resume;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ReactiveResumeRepositoryImpl implements ReactiveResumeRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveResumeRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Resume> patchResume(String id, String userId, long expectedVersion, Update update) {
+        // Resumes saved before versioning have no version field; treat them as version 0
+        List<Object> versions = expectedVersion == 0 ? Arrays.asList(0L, null) : List.of(expectedVersion);
+        Query query = new Query(Criteria.where("_id").is(id)
+                .and("userId").is(userId)
+                .and("version").in(versions));
+        update.inc("version", 1);
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Resume.class);
+    }
+}
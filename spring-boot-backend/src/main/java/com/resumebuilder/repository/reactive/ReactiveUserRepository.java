@@ -0,0 +1,14 @@
+package com.resumebuilder.repository.reactive;
+
+import com.resumebuilder.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of UserRepository for token authentication on the "reactive" profile.
+ */
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByUsername(String username);
+    Mono<Boolean> existsByUsername(String username);
+    Mono<Boolean> existsByEmail(String email);
+}
@@ -0,0 +1,30 @@
+package com.resumebuilder.security;
+
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * CORS rules shared by the servlet and reactive security configurations.
+ */
+public final class CorsSettings {
+
+    private CorsSettings() {}
+
+    public static CorsConfiguration build(String allowedOrigins) {
+        CorsConfiguration configuration = new CorsConfiguration();
+        // Split by comma to support multiple origins (trim whitespace)
+        List<String> origins = Arrays.stream(allowedOrigins.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+        configuration.setAllowedOrigins(origins);
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Accept", "Cache-Control", "Content-Type", "If-None-Match"));
+        configuration.setExposedHeaders(List.of("ETag"));
+        configuration.setAllowCredentials(true);
+        return configuration;
+    }
+}
@@ -2,6 +2,8 @@
 package com.resumebuilder.security.jwt;
 
 import com.resumebuilder.security.services.UserDetailsServiceImpl;
+import com.resumebuilder.service.TokenDenylist;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +22,7 @@ import java.io.IOException;
 public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
     private UserDetailsServiceImpl userDetailsService;
+    private TokenDenylist tokenDenylist;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -31,13 +34,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         this.userDetailsService = userDetailsService;
     }
 
+    public void setTokenDenylist(TokenDenylist tokenDenylist) {
+        this.tokenDenylist = tokenDenylist;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils != null && userDetailsService != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null && jwtUtils != null && userDetailsService != null ? jwtUtils.parseValidToken(jwt) : null;
+            // Bloom-filtered: only possibly-revoked tokens cost a Mongo lookup
+            if (claims != null && (tokenDenylist == null || !tokenDenylist.isRevoked(claims.getId()))) {
+                String username = claims.getSubject();
 
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
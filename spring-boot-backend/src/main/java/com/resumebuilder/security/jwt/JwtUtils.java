@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
@@ -29,6 +30,8 @@ public class JwtUtils {
         
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                // jti: lets a single token be revoked (logout) before it expires
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -36,20 +39,20 @@ public class JwtUtils {
     }
 
     public String getUserNameFromJwtToken(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseValidToken(authToken) != null;
+    }
+
+    /**
+     * Verifies the token and returns its claims (subject, jti, expiration), or null if it is invalid or expired.
+     * Lets filters validate and read a token with a single parse.
+     */
+    public Claims parseValidToken(String authToken) {
         try {
-            Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            return parseClaims(authToken);
         } catch (ExpiredJwtException e) {
             logger.debug("JWT expired: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -63,6 +66,15 @@ public class JwtUtils {
             logger.debug("JWT validation failed: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private Claims parseClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
     }
 }
@@ -0,0 +1,53 @@
+package com.resumebuilder.security.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of AuthEntryPointJwt: same 401 JSON body.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAuthEntryPointJwt implements ServerAuthenticationEntryPoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthEntryPointJwt.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authException) {
+        logger.error("Unauthorized error: {}", authException.getMessage());
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.UNAUTHORIZED.value());
+        body.put("error", "Unauthorized");
+        body.put("message", authException.getMessage() != null
+                ? authException.getMessage() : "Full authentication is required to access this resource");
+        body.put("path", exchange.getRequest().getPath().value());
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer buffer = response.bufferFactory().wrap(mapper.writeValueAsBytes(body));
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.resumebuilder.security.reactive;
+
+import com.resumebuilder.security.jwt.JwtUtils;
+import com.resumebuilder.service.TokenDenylist;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Reactive equivalent of AuthTokenFilter: validates the Bearer token and puts the user into the reactive security context.
+ * Tokens are signed with the shared app.jwt.secret, so tokens issued by servlet nodes work here too.
+ */
+public class ReactiveAuthTokenFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthTokenFilter.class);
+
+    private final JwtUtils jwtUtils;
+    private final ReactiveUserDetailsServiceImpl userDetailsService;
+    private final TokenDenylist tokenDenylist;
+
+    public ReactiveAuthTokenFilter(JwtUtils jwtUtils, ReactiveUserDetailsServiceImpl userDetailsService,
+                                   TokenDenylist tokenDenylist) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.tokenDenylist = tokenDenylist;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = parseJwt(exchange);
+        Claims claims = jwt != null ? jwtUtils.parseValidToken(jwt) : null;
+        if (claims == null) {
+            return chain.filter(exchange);
+        }
+        return notRevoked(claims.getId())
+                .filter(Boolean::booleanValue)
+                .flatMap(ok -> userDetailsService.findByUsername(claims.getSubject()))
+                .map(userDetails -> Optional.of(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .onErrorResume(e -> {
+                    logger.warn("Cannot set user authentication: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(auth -> chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    // The Bloom filter answers most checks in memory; a possible hit is confirmed in Mongo off the event loop
+    private Mono<Boolean> notRevoked(String jti) {
+        if (!tokenDenylist.mightBeRevoked(jti)) {
+            return Mono.just(true);
+        }
+        return Mono.fromCallable(() -> !tokenDenylist.isRevoked(jti)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private String parseJwt(ServerWebExchange exchange) {
+        String headerAuth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.resumebuilder.security.reactive;
+
+import com.resumebuilder.repository.reactive.ReactiveUserRepository;
+import com.resumebuilder.security.services.UserDetailsImpl;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of UserDetailsServiceImpl. Completes empty for unknown users and users pending deletion.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService {
+
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveUserDetailsServiceImpl(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .filter(user -> user.getDeletedAt() == null)
+                .map(UserDetailsImpl::build);
+    }
+}
@@ -20,6 +20,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        if (user.getDeletedAt() != null) {
+            // Pending background deletion: treat as gone (login and existing tokens stop working at once)
+            throw new UsernameNotFoundException("User Not Found with username: " + username);
+        }
 
         return UserDetailsImpl.build(user);
     }
@@ -0,0 +1,127 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.AnalyticsBucket;
+import com.resumebuilder.model.AnalyticsBucket.Granularity;
+import com.resumebuilder.model.AnalyticsMetric;
+import com.resumebuilder.payload.response.AdminTimeSeriesResponse;
+import com.resumebuilder.repository.AnalyticsBucketRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event counters for admin trends. Events are counted per metric and hour in striped in-memory
+ * counters (LongAdder), and a scheduled flush $inc's them into hourly and daily buckets in Mongo.
+ * Time series are read straight from the buckets, so cost depends on the window, not on data size.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private final AnalyticsBucketRepository analyticsBucketRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Map<PendingKey, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public AnalyticsService(AnalyticsBucketRepository analyticsBucketRepository, MongoTemplate mongoTemplate) {
+        this.analyticsBucketRepository = analyticsBucketRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void record(AnalyticsMetric metric) {
+        record(metric, 1);
+    }
+
+    /** Adds amount to the metric's current bucket, for metrics that sum a quantity (e.g. bytes) rather than count events. */
+    public void record(AnalyticsMetric metric, long amount) {
+        Instant hour = Granularity.HOUR.bucketStart(Instant.now());
+        pending.computeIfAbsent(new PendingKey(metric, hour), k -> new LongAdder()).add(amount);
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.analytics.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+        Instant currentHour = Granularity.HOUR.bucketStart(Instant.now());
+        Map<PendingKey, Long> drained = new HashMap<>();
+        pending.forEach((key, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                drained.put(key, count);
+            } else if (key.hour().isBefore(currentHour)) {
+                // Past hours receive no new events; drop their idle counters
+                pending.remove(key, adder);
+            }
+        });
+        if (drained.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AnalyticsBucket.class);
+        drained.forEach((key, count) -> {
+            for (Granularity granularity : Granularity.values()) {
+                Instant bucketStart = granularity.bucketStart(key.hour());
+                String metric = key.metric().getKey();
+                Query query = new Query(Criteria.where("_id").is(AnalyticsBucket.idFor(metric, granularity, bucketStart)));
+                Update update = new Update()
+                        .inc("count", count)
+                        .setOnInsert("metric", metric)
+                        .setOnInsert("granularity", granularity)
+                        .setOnInsert("bucketStart", bucketStart);
+                bulk.upsert(query, update);
+            }
+        });
+        try {
+            bulk.execute();
+        } catch (Exception e) {
+            // Put the counts back so the next flush retries them
+            logger.warn("Failed to flush analytics counters: {}", e.getMessage());
+            drained.forEach((key, count) -> pending.computeIfAbsent(key, k -> new LongAdder()).add(count));
+        }
+    }
+
+    /**
+     * Returns the last `periods` buckets (including the current one) for the metric, oldest first,
+     * with empty buckets filled in as zero and not-yet-flushed counts included.
+     */
+    public AdminTimeSeriesResponse timeSeries(AnalyticsMetric metric, Granularity granularity, int periods) {
+        Instant current = granularity.bucketStart(Instant.now());
+        Instant from = current.minusSeconds(granularity.getSeconds() * (periods - 1));
+
+        Map<Instant, Long> counts = new HashMap<>();
+        for (AnalyticsBucket bucket : analyticsBucketRepository
+                .findByMetricAndGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(metric.getKey(), granularity, from)) {
+            counts.merge(bucket.getBucketStart(), bucket.getCount(), Long::sum);
+        }
+        pending.forEach((key, adder) -> {
+            if (key.metric() == metric) {
+                counts.merge(granularity.bucketStart(key.hour()), adder.sum(), Long::sum);
+            }
+        });
+
+        List<AdminTimeSeriesResponse.Point> points = new ArrayList<>(periods);
+        for (Instant bucket = from; !bucket.isAfter(current); bucket = bucket.plusSeconds(granularity.getSeconds())) {
+            points.add(new AdminTimeSeriesResponse.Point(bucket.toString(), counts.getOrDefault(bucket, 0L)));
+        }
+        return new AdminTimeSeriesResponse(metric.getKey(), granularity.name().toLowerCase(), points);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record PendingKey(AnalyticsMetric metric, Instant hour) {}
+}
@@ -0,0 +1,338 @@
+package com.resumebuilder.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * First PDF cache tier: a node-local, restart-surviving store in append-only segment files that are memory-mapped,
+ * so cached PDFs live in the page cache rather than on the Java heap (only the key index is on heap).
+ *
+ * Record layout: magic (4) | key length (2) | data length (4) | CRC32 of key+data (4) | key | data.
+ * The magic is written last, so a record cut short by a crash ends the startup scan that rebuilds the index;
+ * the CRC is checked on every read and a mismatching entry is dropped. When the cache outgrows max-size-mb,
+ * the oldest segment is compacted: entries read since they were written are carried into the active segment
+ * (second chance), the rest are dropped, and the segment file is deleted.
+ */
+@Service
+@Order(1)
+public class DiskPdfCacheTier implements PdfCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskPdfCacheTier.class);
+
+    private static final int MAGIC = 0x50444643; // "PDFC"
+    private static final int HEADER_SIZE = 4 + 2 + 4 + 4;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean available;
+    private Segment active;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+
+    @Value("${resumebuilder.pdf-cache.disk.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resumebuilder.pdf-cache.disk.dir:${java.io.tmpdir}/resumebuilder-pdf-cache}")
+    private Path directory;
+
+    @Value("${resumebuilder.pdf-cache.disk.max-size-mb:1024}")
+    private long maxSizeMb;
+
+    @Value("${resumebuilder.pdf-cache.disk.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @PostConstruct
+    void open() {
+        if (!enabled) return;
+        try {
+            Files.createDirectories(directory);
+            // Segments are not safe to share between processes; a second instance on the same directory runs without this tier
+            lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            directoryLock = lockChannel.tryLock();
+            if (directoryLock == null) {
+                logger.warn("PDF disk cache {} is in use by another process; disk tier disabled", directory);
+                lockChannel.close();
+                return;
+            }
+            for (Path path : listSegmentFiles()) {
+                Segment segment = Segment.open(path, segmentId(path), segmentCapacity());
+                segments.put(segment.id, segment);
+                scan(segment);
+            }
+            active = segments.isEmpty() ? createSegment(1) : segments.lastEntry().getValue();
+            enforceSizeLimit();
+            available = true;
+            logger.info("PDF disk cache {}: {} entries, {} KB", directory, index.size(), sizeBytes() / 1024);
+        } catch (IOException e) {
+            logger.warn("PDF disk cache {} could not be opened; disk tier disabled: {}", directory, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        writeLock.lock();
+        try {
+            available = false;
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            if (directoryLock != null) {
+                directoryLock.release();
+                lockChannel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Error closing PDF disk cache: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "disk";
+    }
+
+    @Override
+    public byte[] get(String key) {
+        if (!available) return null;
+        Entry entry = index.get(key);
+        if (entry == null) return null;
+        byte[] data = entry.read();
+        if (data == null) {
+            index.remove(key, entry);
+            logger.warn("PDF disk cache entry {} failed its checksum; dropped", key);
+            return null;
+        }
+        entry.accessed = true;
+        return data;
+    }
+
+    @Override
+    public void put(String key, byte[] pdf) {
+        if (!available || index.containsKey(key)) return;
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (HEADER_SIZE + keyBytes.length + pdf.length > segmentCapacity() || keyBytes.length > 0xFFFF) return;
+        writeLock.lock();
+        try {
+            if (!available || index.containsKey(key)) return;
+            if (!active.fits(keyBytes.length, pdf.length)) {
+                active = createSegment(active.id + 1);
+                enforceSizeLimit();
+            }
+            index.put(key, active.append(keyBytes, pdf));
+        } catch (IOException e) {
+            logger.warn("PDF disk cache could not start a new segment: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int entryCount() {
+        return index.size();
+    }
+
+    public long sizeBytes() {
+        return segments.values().stream().mapToLong(s -> s.writePosition).sum();
+    }
+
+    // Caller holds writeLock (or is the single-threaded startup)
+    private void enforceSizeLimit() {
+        long maxBytes = maxSizeMb * 1024 * 1024;
+        while (sizeBytes() > maxBytes && segments.size() > 1) {
+            compactOldest();
+        }
+    }
+
+    private void compactOldest() {
+        Segment oldest = segments.pollFirstEntry().getValue();
+        int carried = 0;
+        int dropped = 0;
+        for (int position = 0; position < oldest.writePosition; ) {
+            Entry stored = oldest.entryAt(position);
+            if (stored == null) break;
+            position = stored.offset + stored.recordSize();
+            String key = stored.key();
+            Entry current = index.get(key);
+            if (current == null || current.segment != oldest) continue; // superseded or already dropped
+            byte[] data = current.accessed ? current.read() : null;
+            if (data != null && active.fits(current.keyLength, data.length)) {
+                index.replace(key, current, active.append(key.getBytes(StandardCharsets.UTF_8), data));
+                carried++;
+            } else {
+                index.remove(key, current);
+                dropped++;
+            }
+        }
+        oldest.close();
+        try {
+            Files.deleteIfExists(oldest.path);
+        } catch (IOException e) {
+            logger.warn("Could not delete PDF cache segment {}: {}", oldest.path, e.getMessage());
+        }
+        logger.debug("Compacted PDF cache segment {}: {} carried forward, {} dropped", oldest.id, carried, dropped);
+    }
+
+    private void scan(Segment segment) {
+        int position = 0;
+        int records = 0;
+        while (true) {
+            Entry entry = segment.entryAt(position);
+            if (entry == null) break;
+            index.put(entry.key(), entry);
+            position = entry.offset + entry.recordSize();
+            records++;
+        }
+        segment.writePosition = position;
+        logger.debug("PDF cache segment {}: {} records, {} bytes", segment.id, records, position);
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(path, id, segmentCapacity());
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private int segmentCapacity() {
+        // A single mapping is limited to 2 GB
+        return (int) Math.min((long) segmentSizeMb * 1024 * 1024, 1L << 30);
+    }
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        volatile int writePosition;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // The file is mapped at full capacity up front; unwritten space stays sparse on disk
+        static Segment open(Path path, long id, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), capacity);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, Integer.MAX_VALUE));
+            return new Segment(id, path, channel, buffer);
+        }
+
+        boolean fits(int keyLength, int dataLength) {
+            return (long) writePosition + HEADER_SIZE + keyLength + dataLength <= buffer.capacity();
+        }
+
+        Entry append(byte[] key, byte[] data) {
+            int position = writePosition;
+            CRC32 crc = new CRC32();
+            crc.update(key);
+            crc.update(data);
+            ByteBuffer view = buffer.duplicate();
+            view.putShort(position + 4, (short) key.length);
+            view.putInt(position + 6, data.length);
+            view.putInt(position + 10, (int) crc.getValue());
+            view.put(position + HEADER_SIZE, key);
+            view.put(position + HEADER_SIZE + key.length, data);
+            view.putInt(position, MAGIC);
+            writePosition = position + HEADER_SIZE + key.length + data.length;
+            return new Entry(this, position, key.length, data.length);
+        }
+
+        /** The record header at position, or null at the end of the written data (or a torn/corrupt header). */
+        Entry entryAt(int position) {
+            if (position + HEADER_SIZE > buffer.capacity() || buffer.getInt(position) != MAGIC) return null;
+            int keyLength = Short.toUnsignedInt(buffer.getShort(position + 4));
+            int dataLength = buffer.getInt(position + 6);
+            if (keyLength == 0 || dataLength < 0 || (long) position + HEADER_SIZE + keyLength + dataLength > buffer.capacity()) {
+                return null;
+            }
+            return new Entry(this, position, keyLength, dataLength);
+        }
+
+        void close() {
+            buffer.force();
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static final class Entry {
+        final Segment segment;
+        final int offset;
+        final int keyLength;
+        final int dataLength;
+        // Read since written: survives the next compaction of its segment
+        volatile boolean accessed;
+
+        Entry(Segment segment, int offset, int keyLength, int dataLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.dataLength = dataLength;
+        }
+
+        int recordSize() {
+            return HEADER_SIZE + keyLength + dataLength;
+        }
+
+        String key() {
+            byte[] key = new byte[keyLength];
+            segment.buffer.get(offset + HEADER_SIZE, key);
+            return new String(key, StandardCharsets.UTF_8);
+        }
+
+        /** The PDF bytes, or null if the record no longer matches its checksum. */
+        byte[] read() {
+            CRC32 crc = new CRC32();
+            crc.update(segment.buffer.slice(offset + HEADER_SIZE, keyLength + dataLength));
+            if ((int) crc.getValue() != segment.buffer.getInt(offset + 10)) return null;
+            byte[] data = new byte[dataLength];
+            segment.buffer.get(offset + HEADER_SIZE + keyLength, data);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.resumebuilder.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.resumebuilder.util.Hashes;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Second PDF cache tier, shared by all nodes: compiled PDFs in the GridFS bucket pdf_cache, one file per cache key.
+ * A lookup reads only the small files document first and downloads chunks only for a live entry, then checks the
+ * bytes against the SHA-256 stored in its metadata. Writes are queued to a background thread so a render never waits
+ * on the upload; when the queue is full the write is skipped. A TTL index cannot expire GridFS chunks, so entries
+ * carry metadata.expiresAt and a scheduled purge deletes expired files together with their chunks. Reads push
+ * the expiry forward, so PDFs that keep being requested stay cached.
+ */
+@Service
+@Order(2)
+public class GridFsPdfCacheTier implements PdfCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridFsPdfCacheTier.class);
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+    private static final String PNG_CONTENT_TYPE = "image/png";
+    private static final String EXPIRES_AT = "metadata.expiresAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final GridFsTemplate gridFsTemplate;
+    private final String filesCollection;
+    private final Duration ttl;
+    private final ThreadPoolExecutor writer;
+    private final Set<String> pendingWrites = ConcurrentHashMap.newKeySet();
+
+    @Value("${resumebuilder.pdf-cache.gridfs.enabled:true}")
+    private boolean enabled;
+
+    public GridFsPdfCacheTier(MongoDatabaseFactory mongoDatabaseFactory, MongoTemplate mongoTemplate,
+                              @Value("${resumebuilder.pdf-cache.gridfs.bucket:pdf_cache}") String bucket,
+                              @Value("${resumebuilder.pdf-cache.gridfs.ttl-days:7}") long ttlDays,
+                              @Value("${resumebuilder.pdf-cache.gridfs.write-queue-size:64}") int writeQueueSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.gridFsTemplate = new GridFsTemplate(mongoDatabaseFactory, mongoTemplate.getConverter(), bucket);
+        this.filesCollection = bucket + ".files";
+        this.ttl = Duration.ofDays(ttlDays);
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(writeQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-cache-gridfs-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    void ensureIndexes() {
+        if (!enabled) return;
+        try {
+            mongoTemplate.indexOps(filesCollection).ensureIndex(new Index().on("filename", Sort.Direction.ASC));
+            mongoTemplate.indexOps(filesCollection).ensureIndex(new Index().on(EXPIRES_AT, Sort.Direction.ASC));
+        } catch (Exception e) {
+            logger.warn("Could not create indexes on {}: {}", filesCollection, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public String name() {
+        return "gridfs";
+    }
+
+    @Override
+    public byte[] get(String key) {
+        if (!enabled) return null;
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("filename").is(key).and(EXPIRES_AT).gt(Date.from(now)))
+                .with(Sort.by(Sort.Direction.DESC, "uploadDate"))
+                .limit(1);
+        GridFSFile file = gridFsTemplate.find(query).first();
+        if (file == null) return null;
+
+        byte[] pdf;
+        try (InputStream in = gridFsTemplate.getResource(file).getInputStream()) {
+            pdf = in.readAllBytes();
+        } catch (Exception e) {
+            logger.warn("Could not download cached PDF {}: {}", key, e.getMessage());
+            return null;
+        }
+        Document metadata = file.getMetadata();
+        if (metadata == null || !Hashes.sha256Hex(pdf).equals(metadata.getString("sha256"))) {
+            logger.warn("Cached PDF {} in GridFS does not match its checksum; ignored", key);
+            return null;
+        }
+        Date expiresAt = metadata.getDate("expiresAt");
+        if (expiresAt != null && expiresAt.toInstant().isBefore(now.plus(ttl.dividedBy(2)))) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(file.getObjectId())),
+                    new Update().set(EXPIRES_AT, Date.from(now.plus(ttl))), filesCollection);
+        }
+        return pdf;
+    }
+
+    @Override
+    public void put(String key, byte[] pdf) {
+        if (!enabled || !pendingWrites.add(key)) return;
+        try {
+            writer.execute(() -> {
+                try {
+                    store(key, pdf);
+                } catch (Exception e) {
+                    logger.warn("Could not store PDF {} in GridFS: {}", key, e.getMessage());
+                } finally {
+                    pendingWrites.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingWrites.remove(key);
+            logger.debug("GridFS PDF cache write queue full; skipped {}", key);
+        }
+    }
+
+    @Override
+    public void putBlocking(String key, byte[] pdf) {
+        if (!enabled) throw new IllegalStateException("GridFS PDF cache tier is disabled");
+        store(key, pdf);
+    }
+
+    // Another node may have stored the same PDF in the meantime; a rare duplicate is harmless and expires on its own
+    private void store(String key, byte[] pdf) {
+        Query existing = new Query(Criteria.where("filename").is(key).and(EXPIRES_AT).gt(new Date()));
+        if (mongoTemplate.exists(existing, filesCollection)) return;
+        Document metadata = new Document("sha256", Hashes.sha256Hex(pdf))
+                .append("expiresAt", Date.from(Instant.now().plus(ttl)));
+        // Page previews share this bucket; a PNG starts with 0x89 'P' 'N' 'G'
+        String contentType = pdf.length > 3 && pdf[0] == (byte) 0x89 && pdf[1] == 'P' ? PNG_CONTENT_TYPE : PDF_CONTENT_TYPE;
+        gridFsTemplate.store(new ByteArrayInputStream(pdf), key, contentType, metadata);
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.pdf-cache.gridfs.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (!enabled) return;
+        try {
+            gridFsTemplate.delete(new Query(Criteria.where(EXPIRES_AT).lte(new Date())));
+        } catch (Exception e) {
+            logger.warn("Could not purge expired PDFs from GridFS: {}", e.getMessage());
+        }
+    }
+}
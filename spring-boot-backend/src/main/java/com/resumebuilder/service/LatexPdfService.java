@@ -1,6 +1,13 @@
 package com.resumebuilder.service;
 
+import com.resumebuilder.model.AnalyticsMetric;
 import com.resumebuilder.model.Resume;
+import com.resumebuilder.util.Hashes;
+import com.resumebuilder.util.LatexLog;
+import com.resumebuilder.util.SingleFlight;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -8,18 +15,57 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Compiles substituted LaTeX to PDF by running pdflatex in a subprocess.
  * Requires pdflatex on the system PATH or path configured in resumebuilder.latex.pdflatex-path.
+ * Rendered PDFs are cached by a hash of their LaTeX source, so an unchanged resume is compiled once, and concurrent
+ * requests for the same source share a single in-flight compile (see {@link #compileShared}).
+ * pdflatex's console output goes to a file in the work directory rather than a pipe, so a chatty compile can never
+ * block on a full pipe. After each pass the .log is parsed (see LatexLog): another pass runs only when LaTeX asks
+ * for one, and every compile's outcome is kept for the admin diagnostics endpoint and counted in analytics.
+ * pdflatex slots are handed out by RenderScheduler, so each compile says who it is for (see RenderScheduler.Requester).
+ * Request-facing renders go through a per-template RenderCircuitBreaker, so a template whose compiles keep failing
+ * falls back at once instead of tying up slots.
  */
 @Service
 public class LatexPdfService {
 
+    public static final long RENDER_TIMEOUT_SECONDS = 60;
+
+    private static final Logger logger = LoggerFactory.getLogger(LatexPdfService.class);
+
+    private static final String BASE_NAME = "resume";
+    private static final String CONSOLE_FILE = "pdflatex.out";
+    private static final int EXIT_TIMED_OUT = -1;
+    private static final int EXIT_NO_RENDER_SLOT = -2;
+    private static final int EXIT_CANCELLED = -3;
+
+    // Bump when the pdflatex invocation changes so stale cached PDFs are no longer served
+    private static final String CACHE_KEY_VERSION = "pdf-v2";
+
     private final LatexTemplateService latexTemplateService;
+    private final PdfCache pdfCache;
+    private final AnalyticsService analyticsService;
+    private final PdfOptimizer pdfOptimizer;
+    // With virtual threads, request concurrency is no longer capped by the Tomcat pool, so cap the subprocesses here
+    private final RenderScheduler renderScheduler;
+    private final RenderCircuitBreaker circuitBreaker;
 
     @Value("${resumebuilder.latex.pdflatex-path:pdflatex}")
     private String pdflatexPath;
@@ -27,62 +73,356 @@ public class LatexPdfService {
     @Value("${resumebuilder.latex.enabled:true}")
     private boolean latexEnabled;
 
-    public LatexPdfService(LatexTemplateService latexTemplateService) {
+    @Value("${resumebuilder.latex.request-timeout-ms:120000}")
+    private long requestTimeoutMs;
+
+    @Value("${resumebuilder.latex.max-passes:3}")
+    private int maxPasses;
+
+    @Value("${resumebuilder.latex.diagnostics-history:50}")
+    private int diagnosticsHistory;
+
+    private final Deque<CompileReport> recentCompiles = new ArrayDeque<>();
+    private final ReentrantLock recentCompilesLock = new ReentrantLock();
+
+    // Shared compiles run detached from any one request, so a caller that gives up does not abort the others'.
+    // They use virtual threads only when spring.threads.virtual.enabled does, like request handling.
+    private final SingleFlight<byte[]> inFlightRenders = new SingleFlight<>();
+    private final ExecutorService renderExecutor;
+
+    public LatexPdfService(LatexTemplateService latexTemplateService, PdfCache pdfCache, AnalyticsService analyticsService,
+                           PdfOptimizer pdfOptimizer, RenderScheduler renderScheduler,
+                           RenderCircuitBreaker circuitBreaker,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.latexTemplateService = latexTemplateService;
+        this.pdfCache = pdfCache;
+        this.analyticsService = analyticsService;
+        this.pdfOptimizer = pdfOptimizer;
+        this.renderScheduler = renderScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.renderExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pdflatex-render-", 0).factory())
+                : Executors.newCachedThreadPool(Thread.ofPlatform().name("pdflatex-render-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Running compiles get one render timeout to finish; after that they are interrupted, which kills pdflatex
+        renderExecutor.shutdown();
+        if (!renderExecutor.awaitTermination(RENDER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            renderExecutor.shutdownNow();
+        }
     }
 
     /**
      * Generates PDF bytes for the given resume using the given LaTeX template id.
      * Returns null if template not found, LaTeX not enabled, or compilation fails.
      */
-    public byte[] generatePdf(Resume resume, String templateId) throws IOException {
+    public byte[] generatePdf(Resume resume, String templateId, RenderScheduler.Requester requester) throws IOException {
+        String source = renderSource(resume, templateId);
+        return source != null ? generatePdf(templateId, source, requester) : null;
+    }
+
+    /**
+     * Generates PDF bytes for LaTeX source from {@link #renderSource}: from the cache, or by joining or starting a
+     * shared compile. Returns null if compilation fails, does not finish in time, or the template's circuit is open.
+     */
+    public byte[] generatePdf(String templateId, String source, RenderScheduler.Requester requester) throws IOException {
+        CompletableFuture<byte[]> render = generatePdfAsync(templateId, source, requester);
+        try {
+            return render.get();
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            render.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link #generatePdf(String, String, RenderScheduler.Requester)} without blocking: completes at once on a
+     * cache hit or when the template's circuit is open (with null, so the caller falls back), otherwise when the
+     * shared compile finishes. Fails with TimeoutException after resumebuilder.latex.request-timeout-ms. Cancel the
+     * returned future when the caller goes away; on cancel or timeout the compile is killed and its render slot freed
+     * as soon as no other request is waiting for it.
+     */
+    public CompletableFuture<byte[]> generatePdfAsync(String templateId, String source,
+                                                      RenderScheduler.Requester requester) {
+        byte[] cached = pdfCache.get(cacheKey(source));
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<byte[]> render = compileShared(templateId, source, requester);
+        CompletableFuture<byte[]> result = render.thenApply(pdf -> pdf).orTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        result.whenComplete((pdf, e) -> {
+            if (e != null) render.cancel(true);
+        });
+        return result;
+    }
+
+    /** How long a request waits for its PDF (a render slot plus the compile) before giving up. */
+    public long requestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    /**
+     * Compiles the source and caches the PDF, sharing one compile among all concurrent callers with the same source.
+     * Completes with null if compilation fails or the template's circuit is open. Cancel the returned future to stop
+     * waiting; the compile itself is stopped only once every caller waiting on it has cancelled. The compile is
+     * admitted by the circuit breaker and scheduled for the requester that started it, and its outcome is recorded
+     * once; later callers just join it.
+     */
+    public CompletableFuture<byte[]> compileShared(String templateId, String source, RenderScheduler.Requester requester) {
+        String key = cacheKey(source);
+        return inFlightRenders.join(key, () -> {
+            RenderCircuitBreaker.Call call = circuitBreaker.tryAcquire(templateId);
+            if (call == null) {
+                // pdflatex keeps failing for this template: fall back now rather than queue behind doomed compiles
+                analyticsService.record(AnalyticsMetric.PDF_BREAKER_REJECTIONS);
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<byte[]> result = new CompletableFuture<>();
+            RenderCircuitBreaker.Outcome[] outcome = {RenderCircuitBreaker.Outcome.FAILURE};
+            // The compile ends by the leader's request deadline, so it never outlives the requests it serves
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs);
+            AtomicBoolean running = new AtomicBoolean();
+            Future<?> task = renderExecutor.submit(() -> {
+                try {
+                    Compiled compiled = runCompile(source, requester, deadline, running);
+                    outcome[0] = outcome(compiled);
+                    // Cached before the flight completes, so a request arriving in between still finds it
+                    if (compiled.pdf() != null) pdfCache.put(key, compiled.pdf());
+                    result.complete(compiled.pdf());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((pdf, e) -> {
+                // Interrupting the compile destroys a running pdflatex (see runPdflatex). Callers that went away say
+                // nothing about the template, but requests that timed out while pdflatex ran are a timeout failure.
+                if (result.isCancelled()) {
+                    task.cancel(true);
+                    boolean timedOut = running.get() && System.nanoTime() - deadline >= 0;
+                    call.finish(timedOut ? RenderCircuitBreaker.Outcome.FAILURE : RenderCircuitBreaker.Outcome.ABANDONED);
+                } else {
+                    call.finish(outcome[0]);
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * Compiles LaTeX source to PDF bytes without consulting the cache, waiting for a pdflatex slot in the
+     * requester's fair-share turn. Returns null if compilation fails.
+     */
+    public byte[] compile(String source, RenderScheduler.Requester requester) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2 * RENDER_TIMEOUT_SECONDS);
+        return runCompile(source, requester, deadline, new AtomicBoolean()).pdf();
+    }
+
+    private record Compiled(byte[] pdf, int exitCode) {}
+
+    // Gives up by the deadline (System.nanoTime()); running is set once a render slot is granted
+    private Compiled runCompile(String source, RenderScheduler.Requester requester, long deadline,
+                                AtomicBoolean running) throws IOException {
+        Path dir = writeSource(source);
+        long started = System.nanoTime();
+        try {
+            Passes passes = runPassesLimited(dir, requester, deadline, running);
+            Path pdfFile = pdfFile(dir);
+            boolean succeeded = passes.exitCode() == 0 && Files.isRegularFile(pdfFile);
+            record(cacheKey(source), succeeded, passes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            byte[] pdf = succeeded ? pdfOptimizer.optimize(Files.readAllBytes(pdfFile)) : null;
+            return new Compiled(pdf, passes.exitCode());
+        } finally {
+            deleteWorkDir(dir);
+        }
+    }
+
+    // Failures and timeouts count against the template; a compile that found no free slot or was cancelled does not
+    private static RenderCircuitBreaker.Outcome outcome(Compiled compiled) {
+        if (compiled.pdf() != null) return RenderCircuitBreaker.Outcome.SUCCESS;
+        if (compiled.exitCode() == EXIT_NO_RENDER_SLOT || compiled.exitCode() == EXIT_CANCELLED) {
+            return RenderCircuitBreaker.Outcome.ABANDONED;
+        }
+        return RenderCircuitBreaker.Outcome.FAILURE;
+    }
+
+    /**
+     * Outcome of one compile. failure is null on success, otherwise the first LaTeX error or why pdflatex did not finish.
+     */
+    public record CompileReport(Instant finishedAt, String key, boolean succeeded, String failure, int exitCode,
+                                int passes, long millis, LatexLog.Diagnostics diagnostics) {}
+
+    /** The most recent compiles on this node, newest first. */
+    public List<CompileReport> recentCompiles() {
+        recentCompilesLock.lock();
+        try {
+            return List.copyOf(recentCompiles);
+        } finally {
+            recentCompilesLock.unlock();
+        }
+    }
+
+    /**
+     * The substituted LaTeX source for the resume, or null if LaTeX is disabled or the template does not exist.
+     */
+    public String renderSource(Resume resume, String templateId) throws IOException {
         if (!latexEnabled || templateId == null || templateId.isBlank()) return null;
         if (!latexTemplateService.hasTemplate(templateId)) return null;
 
         String latex = latexTemplateService.loadTemplate(templateId);
         if (latex == null) return null;
-        String substituted = latexTemplateService.substitute(resume, latex);
+        return latexTemplateService.substitute(resume, latex);
+    }
+
+    /** The PdfCache key for a LaTeX source: identical sources compile to the same PDF. */
+    public static String cacheKey(String source) {
+        return Hashes.sha256Hex(CACHE_KEY_VERSION, source);
+    }
 
+    /**
+     * Writes the LaTeX source into a new temporary work directory and returns it. The caller must delete the directory.
+     */
+    private Path writeSource(String source) throws IOException {
         Path dir = Files.createTempDirectory("resume-latex-");
-        String baseName = "resume";
-        Path texFile = dir.resolve(baseName + ".tex");
         try {
-            Files.writeString(texFile, substituted, StandardCharsets.UTF_8);
-            int exitCode = runPdflatex(dir, baseName);
-            if (exitCode != 0) return null;
-            Path pdfFile = dir.resolve(baseName + ".pdf");
-            if (!Files.isRegularFile(pdfFile)) return null;
-            return Files.readAllBytes(pdfFile);
-        } finally {
-            try {
-                Files.walk(dir).sorted((a, b) -> b.compareTo(a)).forEach(p -> {
-                    try { Files.deleteIfExists(p); } catch (IOException ignored) {}
-                });
-            } catch (Exception ignored) {}
+            Files.writeString(dir.resolve(BASE_NAME + ".tex"), source, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            deleteWorkDir(dir);
+            throw e;
         }
+        return dir;
+    }
+
+    /** Where pdflatex writes the PDF for a work directory created by {@link #writeSource}. */
+    private Path pdfFile(Path workDir) {
+        return workDir.resolve(BASE_NAME + ".pdf");
     }
 
-    private int runPdflatex(Path workDir, String baseName) throws IOException {
+    /** Starts pdflatex on the source in the work directory; the caller waits for it and enforces the timeout. */
+    private Process startPdflatex(Path workDir) throws IOException {
         List<String> cmd = new ArrayList<>();
         cmd.add(pdflatexPath);
         cmd.add("-interaction=nonstopmode");
         cmd.add("-halt-on-error");
-        cmd.add(baseName + ".tex");
+        cmd.add(BASE_NAME + ".tex");
         ProcessBuilder pb = new ProcessBuilder(cmd)
                 .directory(workDir.toFile())
-                .redirectErrorStream(true);
-        Process p = pb.start();
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(CONSOLE_FILE).toFile());
+        return pb.start();
+    }
+
+    private static void deleteWorkDir(Path dir) {
         try {
-            boolean finished = p.waitFor(60, TimeUnit.SECONDS);
-            if (!finished) {
-                p.destroyForcibly();
-                return -1;
-            }
-            return p.exitValue();
+            Files.walk(dir).sorted((a, b) -> b.compareTo(a)).forEach(p -> {
+                try { Files.deleteIfExists(p); } catch (IOException ignored) {}
+            });
+        } catch (Exception ignored) {}
+    }
+
+    private record Passes(int exitCode, int count, LatexLog.Diagnostics diagnostics) {}
+
+    // Waits up to the render timeout (and no later than the deadline) for one of the per-node pdflatex slots
+    private Passes runPassesLimited(Path workDir, RenderScheduler.Requester requester, long deadline,
+                                    AtomicBoolean running) throws IOException {
+        long slotWait = Math.min(TimeUnit.SECONDS.toNanos(RENDER_TIMEOUT_SECONDS), deadline - System.nanoTime());
+        if (slotWait <= 0) return new Passes(EXIT_NO_RENDER_SLOT, 0, null);
+        RenderScheduler.Permit permit;
+        try {
+            permit = renderScheduler.acquire(requester, slotWait, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Passes(EXIT_CANCELLED, 0, null);
+        }
+        if (permit == null) return new Passes(EXIT_NO_RENDER_SLOT, 0, null);
+        try (permit) {
+            running.set(true);
+            return runPasses(workDir, deadline);
+        }
+    }
+
+    // All passes share one timeout, cut short by the compile's deadline; a further pass runs only if the last one
+    // succeeded and asked for a rerun
+    private Passes runPasses(Path workDir, long compileDeadline) throws IOException {
+        long renderDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(RENDER_TIMEOUT_SECONDS);
+        long deadline = compileDeadline - renderDeadline < 0 ? compileDeadline : renderDeadline;
+        int count = 0;
+        int exitCode;
+        LatexLog.Diagnostics diagnostics;
+        do {
+            count++;
+            exitCode = runPdflatex(workDir, deadline);
+            diagnostics = readDiagnostics(workDir);
+        } while (exitCode == 0 && diagnostics.rerunNeeded() && count < maxPasses && !Thread.currentThread().isInterrupted());
+        return new Passes(exitCode, count, diagnostics);
+    }
+
+    private int runPdflatex(Path workDir, long deadline) throws IOException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) return EXIT_TIMED_OUT;
+        Process p = startPdflatex(workDir);
+        try {
+            // onExit() parks instead of Process.waitFor's monitor wait, so a virtual thread does not pin its carrier
+            return p.onExit().get(remaining, TimeUnit.NANOSECONDS).exitValue();
+        } catch (TimeoutException | ExecutionException e) {
+            p.destroyForcibly();
+            return EXIT_TIMED_OUT;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             p.destroyForcibly();
-            return -1;
+            return EXIT_CANCELLED;
+        }
+    }
+
+    // pdflatex writes the full transcript to the .log; the console copy only matters if it failed before opening one.
+    // TeX logs are bytes in the document's encoding, so read them as Latin-1, which never fails to decode.
+    private LatexLog.Diagnostics readDiagnostics(Path workDir) throws IOException {
+        Path log = workDir.resolve(BASE_NAME + ".log");
+        if (!Files.isRegularFile(log)) log = workDir.resolve(CONSOLE_FILE);
+        String text = Files.isRegularFile(log) ? Files.readString(log, StandardCharsets.ISO_8859_1) : "";
+        return LatexLog.parse(text);
+    }
+
+    private void record(String key, boolean succeeded, Passes passes, long millis) {
+        String failure = null;
+        if (!succeeded) {
+            if (passes.exitCode() == EXIT_NO_RENDER_SLOT) failure = "No render slot free after " + millis + " ms";
+            else if (passes.exitCode() == EXIT_TIMED_OUT) failure = "Timed out after " + millis + " ms";
+            else if (passes.exitCode() == EXIT_CANCELLED) failure = "Cancelled";
+            else if (passes.diagnostics() != null && passes.diagnostics().firstError() != null) failure = passes.diagnostics().firstError();
+            else failure = "pdflatex exited with " + passes.exitCode();
+        }
+        CompileReport report = new CompileReport(Instant.now(), key, succeeded, failure, passes.exitCode(),
+                passes.count(), millis, passes.diagnostics());
+
+        analyticsService.record(AnalyticsMetric.PDF_COMPILES);
+        analyticsService.record(AnalyticsMetric.PDF_COMPILE_PASSES, passes.count());
+        if (succeeded) {
+            logger.debug("Compiled {} in {} pass(es), {} ms", key, passes.count(), millis);
+        } else if (passes.exitCode() == EXIT_CANCELLED) {
+            // Every request waiting for it went away; count the work saved rather than a failure
+            analyticsService.record(AnalyticsMetric.PDF_COMPILES_CANCELLED);
+            logger.debug("Compile {} cancelled after {} ms", key, millis);
+        } else {
+            analyticsService.record(AnalyticsMetric.PDF_COMPILE_FAILURES);
+            Integer line = passes.diagnostics() != null ? passes.diagnostics().errorLine() : null;
+            logger.warn("pdflatex failed for {}: {}{}", key, failure, line != null ? " (line " + line + ")" : "");
+        }
+
+        recentCompilesLock.lock();
+        try {
+            recentCompiles.addFirst(report);
+            while (recentCompiles.size() > diagnosticsHistory) {
+                recentCompiles.removeLast();
+            }
+        } finally {
+            recentCompilesLock.unlock();
         }
     }
 
@@ -1,6 +1,7 @@
 package com.resumebuilder.service;
 
 import com.resumebuilder.model.Resume;
+import com.resumebuilder.util.Hashes;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
@@ -9,6 +10,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Loads LaTeX templates from classpath (templates/latex/{id}.tex),
@@ -20,6 +22,9 @@ public class LatexTemplateService {
     private static final String TEMPLATE_BASE = "templates/latex/";
     private static final String TEMPLATE_SUFFIX = ".tex";
 
+    // Templates are classpath resources, so their content (and hash) is fixed for the life of the process
+    private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+
     /**
      * Returns true if a .tex file exists for the given template id.
      */
@@ -46,6 +51,21 @@ public class LatexTemplateService {
         }
     }
 
+    /**
+     * SHA-256 of the template content, cached per template id. Returns null if not found.
+     */
+    public String contentHash(String templateId) throws IOException {
+        if (templateId == null || templateId.isBlank()) return null;
+        String id = templateId.trim();
+        String cached = contentHashes.get(id);
+        if (cached != null) return cached;
+        String latex = loadTemplate(id);
+        if (latex == null) return null;
+        String hash = Hashes.sha256Hex(latex);
+        contentHashes.put(id, hash);
+        return hash;
+    }
+
     /**
      * Substitutes all placeholders in the LaTeX string with data from the resume.
      * Escapes user content for LaTeX. Block placeholders {{#section}}...{{/section}}
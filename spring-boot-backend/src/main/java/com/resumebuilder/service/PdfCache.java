@@ -0,0 +1,71 @@
+package com.resumebuilder.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Rendered-PDF cache in front of pdflatex, made of the PdfCacheTier beans in @Order (fastest first).
+ * A hit in a later tier is copied into the earlier ones; a new render is written to every tier.
+ * A failing tier is treated as a miss so the render path never depends on the cache.
+ * Page previews (PdfPreviewService) are stored here too, under their own content-hash keys.
+ */
+@Service
+public class PdfCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfCache.class);
+
+    private final List<PdfCacheTier> tiers;
+
+    public PdfCache(List<PdfCacheTier> tiers) {
+        this.tiers = List.copyOf(tiers);
+    }
+
+    public byte[] get(String key) {
+        for (int i = 0; i < tiers.size(); i++) {
+            byte[] pdf = safeGet(tiers.get(i), key);
+            if (pdf != null) {
+                for (int j = 0; j < i; j++) {
+                    safePut(tiers.get(j), key, pdf);
+                }
+                return pdf;
+            }
+        }
+        return null;
+    }
+
+    public void put(String key, byte[] pdf) {
+        for (PdfCacheTier tier : tiers) {
+            safePut(tier, key, pdf);
+        }
+    }
+
+    /**
+     * Stores the PDF in every tier before returning, so another node can read it as soon as this returns.
+     * Used by render workers, which announce a finished render only after this. Tier failures propagate.
+     */
+    public void putBlocking(String key, byte[] pdf) {
+        for (PdfCacheTier tier : tiers) {
+            tier.putBlocking(key, pdf);
+        }
+    }
+
+    private static byte[] safeGet(PdfCacheTier tier, String key) {
+        try {
+            return tier.get(key);
+        } catch (Exception e) {
+            logger.warn("PDF cache tier {} failed to read {}: {}", tier.name(), key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void safePut(PdfCacheTier tier, String key, byte[] pdf) {
+        try {
+            tier.put(key, pdf);
+        } catch (Exception e) {
+            logger.warn("PDF cache tier {} failed to store {}: {}", tier.name(), key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.resumebuilder.service;
+
+/**
+ * One level of the rendered-PDF cache (see PdfCache). Keys are content hashes of the LaTeX source, so entries
+ * never need invalidating: a changed resume or template produces a different key.
+ */
+public interface PdfCacheTier {
+
+    /** Short name for logs and stats. */
+    String name();
+
+    /** The cached PDF, or null on a miss. Must not throw for a missing or unreadable entry. */
+    byte[] get(String key);
+
+    void put(String key, byte[] pdf);
+
+    /**
+     * Like put, but returns only once the entry is readable (by every node, for a shared tier) and throws if it
+     * could not be stored. Tiers whose put is already synchronous need not override this.
+     */
+    default void putBlocking(String key, byte[] pdf) {
+        put(key, pdf);
+    }
+}
@@ -0,0 +1,158 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.AnalyticsMetric;
+import com.resumebuilder.util.Hashes;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optional in-process post-processing of compiled PDFs with PDFBox (resumebuilder.pdf-optimize.enabled).
+ * Identical streams (fonts or images embedded more than once) are merged, uncompressed streams are Flate-compressed,
+ * and the file is rewritten with object streams and a compressed xref stream; unreferenced objects are dropped on save.
+ * The result is used only if it is smaller. Sizes before and after are summed into analytics.
+ */
+@Service
+public class PdfOptimizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfOptimizer.class);
+
+    private final AnalyticsService analyticsService;
+
+    @Value("${resumebuilder.pdf-optimize.enabled:false}")
+    private boolean enabled;
+
+    public PdfOptimizer(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /** The optimized PDF, or the input unchanged if disabled, if PDFBox cannot process it, or if it would not shrink. */
+    public byte[] optimize(byte[] pdf) {
+        if (!enabled) return pdf;
+        byte[] result = pdf;
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            StreamWalker walker = new StreamWalker();
+            walker.visit(document.getDocument().getTrailer());
+            ByteArrayOutputStream out = new ByteArrayOutputStream(pdf.length);
+            document.save(out, CompressParameters.DEFAULT_COMPRESSION);
+            if (out.size() < pdf.length) result = out.toByteArray();
+            logger.debug("Optimized PDF {} -> {} bytes ({} streams merged, {} compressed)",
+                    pdf.length, result.length, walker.merged, walker.compressed);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("PDF optimization failed, serving the original: {}", e.getMessage());
+        }
+        analyticsService.record(AnalyticsMetric.PDF_BYTES_RAW, pdf.length);
+        analyticsService.record(AnalyticsMetric.PDF_BYTES_OPTIMIZED, result.length);
+        return result;
+    }
+
+    /**
+     * Walks the object graph from the trailer. Each indirect stream is keyed by its dictionary and raw bytes before it
+     * is modified, and references to a stream with an already seen key are pointed at the first one.
+     */
+    private static final class StreamWalker {
+        private final Set<COSBase> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<String, COSObject> firstByContent = new HashMap<>();
+        int merged;
+        int compressed;
+
+        void visit(COSBase base) throws IOException {
+            if (base instanceof COSObject reference) base = reference.getObject();
+            if (base == null || !visited.add(base)) return;
+            if (base instanceof COSDictionary dictionary) {
+                for (Map.Entry<COSName, COSBase> entry : List.copyOf(dictionary.entrySet())) {
+                    COSBase value = deduplicate(entry.getValue());
+                    if (value != entry.getValue()) dictionary.setItem(entry.getKey(), value);
+                    visit(value);
+                }
+                if (dictionary instanceof COSStream stream) compress(stream);
+            } else if (base instanceof COSArray array) {
+                for (int i = 0; i < array.size(); i++) {
+                    COSBase value = deduplicate(array.get(i));
+                    if (value != array.get(i)) array.set(i, value);
+                    visit(value);
+                }
+            }
+        }
+
+        private COSBase deduplicate(COSBase value) throws IOException {
+            if (!(value instanceof COSObject reference) || !(reference.getObject() instanceof COSStream stream)) return value;
+            if (visited.contains(stream)) return value;
+            StringBuilder key = new StringBuilder();
+            describe(stream, key);
+            try (InputStream raw = stream.createRawInputStream()) {
+                key.append(Hashes.sha256Hex(raw.readAllBytes()));
+            }
+            COSObject first = firstByContent.putIfAbsent(key.toString(), reference);
+            if (first == null || first.getObject() == stream) return value;
+            merged++;
+            return first;
+        }
+
+        // XMP metadata stays uncompressed so tools can find it without a PDF parser
+        private void compress(COSStream stream) throws IOException {
+            if (stream.getFilters() != null || !stream.hasData() || COSName.METADATA.equals(stream.getCOSName(COSName.TYPE))) {
+                return;
+            }
+            byte[] data;
+            try (InputStream raw = stream.createRawInputStream()) {
+                data = raw.readAllBytes();
+            }
+            try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE)) {
+                out.write(data);
+            }
+            compressed++;
+        }
+
+        // A stable description of a dictionary; references are described by object number, not followed
+        private static void describe(COSBase base, StringBuilder out) {
+            if (base instanceof COSObject reference) {
+                COSObjectKey key = reference.getKey();
+                out.append(key != null ? key.getNumber() + " " + key.getGeneration() : "?").append(" R");
+            } else if (base instanceof COSDictionary dictionary) {
+                out.append("<<");
+                dictionary.keySet().stream()
+                        .filter(name -> !COSName.LENGTH.equals(name))
+                        .sorted(Comparator.comparing(COSName::getName))
+                        .forEach(name -> {
+                            out.append('/').append(name.getName()).append(' ');
+                            describe(dictionary.getItem(name), out);
+                            out.append(' ');
+                        });
+                out.append(">>");
+            } else if (base instanceof COSArray array) {
+                out.append('[');
+                for (int i = 0; i < array.size(); i++) {
+                    describe(array.get(i), out);
+                    out.append(' ');
+                }
+                out.append(']');
+            } else {
+                out.append(base);
+            }
+        }
+    }
+}
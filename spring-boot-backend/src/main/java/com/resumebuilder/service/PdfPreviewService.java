@@ -0,0 +1,196 @@
+package com.resumebuilder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resumebuilder.model.RenderTask;
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.util.Hashes;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PNG previews of a compiled resume page, for the dashboard and the template gallery.
+ * The PDF comes from LatexPdfService (or the render queue), so it is cached and shared as usual; rasterising is
+ * CPU-heavy and runs under its own small permit pool. Previews are cached in PdfCache under a hash of the PDF's cache
+ * key, page and width, so an unchanged resume is rasterised once per size. Once the app is ready, the first page of
+ * every LaTeX template is rendered with the sample resume at the default width, so gallery thumbnails are warm.
+ */
+@Service
+public class PdfPreviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfPreviewService.class);
+
+    public static final int DEFAULT_WIDTH = 400;
+    public static final int MIN_WIDTH = 32;
+    public static final int MAX_WIDTH = 2000;
+
+    private static final String KEY_VERSION = "preview-v1";
+    private static final String SAMPLE_RESUME = "templates/latex/sample-resume.json";
+    private static final long RASTER_WAIT_SECONDS = 10;
+
+    private final LatexPdfService latexPdfService;
+    private final RenderQueue renderQueue;
+    private final PdfCache pdfCache;
+    private final TemplateCatalogService templateCatalogService;
+    private final ObjectMapper objectMapper;
+    private final Semaphore rasterPermits;
+    // Rasterising waits for a permit and is CPU-bound, so it gets its own threads rather than the caller's
+    private final ExecutorService rasterExecutor;
+
+    @Value("${resumebuilder.preview.warm-templates:true}")
+    private boolean warmTemplates;
+
+    public PdfPreviewService(LatexPdfService latexPdfService, RenderQueue renderQueue, PdfCache pdfCache,
+                             TemplateCatalogService templateCatalogService, ObjectMapper objectMapper,
+                             @Value("${resumebuilder.preview.max-concurrent:2}") int maxConcurrent,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.latexPdfService = latexPdfService;
+        this.renderQueue = renderQueue;
+        this.pdfCache = pdfCache;
+        this.templateCatalogService = templateCatalogService;
+        this.objectMapper = objectMapper;
+        this.rasterPermits = new Semaphore(Math.max(1, maxConcurrent));
+        this.rasterExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pdf-preview-", 0).factory())
+                : Executors.newCachedThreadPool(Thread.ofPlatform().name("pdf-preview-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        rasterExecutor.shutdown();
+        if (!rasterExecutor.awaitTermination(RASTER_WAIT_SECONDS, TimeUnit.SECONDS)) {
+            rasterExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * PNG of the page (1-based) scaled to the width in pixels, or null if the resume cannot be rendered with LaTeX,
+     * compilation fails, or the PDF has no such page. Throws RejectedExecutionException when the PDF is still being
+     * rendered by a worker (the render is queued, not waited for) or no raster slot frees up in time; the caller
+     * should ask the client to retry. Blocks; request handlers use {@link #previewAsync}.
+     */
+    public byte[] preview(Resume resume, String templateId, int page, int width,
+                          RenderScheduler.Requester requester) throws IOException {
+        try {
+            return previewAsync(resume, templateId, page, width, requester).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RejectedExecutionException rejected) throw rejected;
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link #preview} without blocking the caller: the compile is joined through
+     * LatexPdfService.generatePdfAsync and rasterising runs on this service's own threads. The future fails with
+     * RejectedExecutionException where preview throws it. Cancel it when the caller goes away; that also leaves the
+     * shared compile. A compile it needs is scheduled for the requester.
+     */
+    public CompletableFuture<byte[]> previewAsync(Resume resume, String templateId, int page, int width,
+                                                  RenderScheduler.Requester requester) throws IOException {
+        String source = latexPdfService.renderSource(resume, templateId);
+        if (source == null) return CompletableFuture.completedFuture(null);
+        String key = Hashes.sha256Hex(KEY_VERSION, LatexPdfService.cacheKey(source), String.valueOf(page), String.valueOf(width));
+        byte[] cached = pdfCache.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<byte[]> render;
+        if (renderQueue.isEnabled()) {
+            RenderQueue.Result result = renderQueue.render(resume, templateId);
+            if (result.status() == RenderTask.Status.QUEUED || result.status() == RenderTask.Status.RUNNING) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("PDF is still being rendered"));
+            }
+            render = CompletableFuture.completedFuture(result.pdf());
+        } else {
+            render = latexPdfService.generatePdfAsync(templateId, source, requester);
+        }
+        CompletableFuture<byte[]> png = render.thenApplyAsync(pdf -> {
+            if (pdf == null) return null;
+            try {
+                byte[] image = rasterize(pdf, page, width);
+                if (image != null) pdfCache.put(key, image);
+                return image;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, rasterExecutor);
+        png.whenComplete((image, e) -> {
+            if (png.isCancelled()) render.cancel(true);
+        });
+        return png;
+    }
+
+    /** The sample resume used for template thumbnails. */
+    public Resume sampleResume(String templateId) throws IOException {
+        try (InputStream in = new ClassPathResource(SAMPLE_RESUME).getInputStream()) {
+            Resume resume = objectMapper.readValue(in, Resume.class);
+            resume.setId("sample-" + templateId);
+            resume.setTemplate(templateId);
+            return resume;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmTemplateThumbnails() {
+        if (!warmTemplates || !latexPdfService.isLatexEnabled()) return;
+        Thread.ofVirtual().name("template-thumbnails").start(() -> {
+            for (String templateId : templateCatalogService.latexTemplateIds()) {
+                try {
+                    byte[] png = preview(sampleResume(templateId), templateId, 1, DEFAULT_WIDTH,
+                            RenderScheduler.Requester.SYSTEM);
+                    if (png == null) logger.warn("Could not render a thumbnail for template {}", templateId);
+                } catch (Exception e) {
+                    logger.warn("Could not render a thumbnail for template {}: {}", templateId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private byte[] rasterize(byte[] pdf, int page, int width) throws IOException {
+        try {
+            if (!rasterPermits.tryAcquire(RASTER_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RejectedExecutionException("No preview slot free");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a preview slot");
+        }
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            if (page < 1 || page > document.getNumberOfPages()) return null;
+            PDRectangle box = document.getPage(page - 1).getCropBox();
+            BufferedImage image = new PDFRenderer(document).renderImage(page - 1, width / box.getWidth(), ImageType.RGB);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } finally {
+            rasterPermits.release();
+        }
+    }
+}
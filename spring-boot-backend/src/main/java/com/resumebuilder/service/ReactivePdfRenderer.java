@@ -0,0 +1,69 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.Resume;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Non-blocking front for LatexPdfService, used by the "reactive" profile.
+ * Only the short template and cache lookups run on the bounded elastic pool. A compile is joined through
+ * LatexPdfService.generatePdfAsync, so identical concurrent requests (from either edition) share one pdflatex run, the
+ * same circuit breaker and deadline apply, and a disconnected or timed-out request just stops waiting for it.
+ */
+@Service
+public class ReactivePdfRenderer {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final LatexPdfService latexPdfService;
+
+    public ReactivePdfRenderer(LatexPdfService latexPdfService) {
+        this.latexPdfService = latexPdfService;
+    }
+
+    /**
+     * Emits the rendered PDF, or completes empty if LaTeX is unavailable or compilation fails. A compile it needs is
+     * scheduled for the requester.
+     */
+    public Mono<RenderedPdf> render(Resume resume, String templateId, RenderScheduler.Requester requester) {
+        // Source and cache lookups block, so the future is obtained on the elastic pool. fromFuture cancels it when
+        // the request is cancelled, which leaves the shared compile (and kills pdflatex if no one else waits for it);
+        // the request timeout is enforced by the future itself.
+        return Mono.fromCallable(() -> {
+                    String source = latexPdfService.renderSource(resume, templateId);
+                    return source != null ? latexPdfService.generatePdfAsync(templateId, source, requester) : null;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::fromFuture)
+                .map(RenderedPdf::new)
+                .onErrorResume(IOException.class, e -> Mono.empty());
+    }
+
+    /** A rendered PDF; {@link #content} streams it in 16 KB buffers that wrap the bytes without copying them. */
+    public static final class RenderedPdf {
+        private final byte[] bytes;
+
+        RenderedPdf(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public long size() {
+            return bytes.length;
+        }
+
+        public Flux<DataBuffer> content(DataBufferFactory bufferFactory) {
+            int chunks = (bytes.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            return Flux.range(0, chunks).map(i -> {
+                int offset = i * CHUNK_SIZE;
+                return bufferFactory.wrap(ByteBuffer.wrap(bytes, offset, Math.min(CHUNK_SIZE, bytes.length - offset)));
+            });
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.resumebuilder.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-template circuit breaker for pdflatex on this node. Each template keeps its last window-size compile outcomes
+ * (failures and timeouts count against it). Once at least min-calls are recorded and the failure share reaches
+ * failure-rate-percent, the breaker opens: for open-ms, compiles for that template are refused at once, so requests
+ * go straight to the JSON fallback instead of queueing behind doomed pdflatex runs. After that, one request at a time
+ * is let through as a probe (half-open); a successful probe closes the breaker, a failed one opens it again.
+ * Each shared compile records one outcome, however many requests joined it. Compiles whose callers all went away or
+ * that found no free render slot record nothing (an abandoned probe just lets the next request probe).
+ */
+@Service
+public class RenderCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public enum Outcome { SUCCESS, FAILURE, ABANDONED }
+
+    /** One template's breaker as shown on the health endpoint. openUntil is set only while OPEN. */
+    public record Snapshot(State state, int calls, int failures, Instant openUntil) {}
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final long openMs;
+
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public RenderCircuitBreaker(@Value("${resumebuilder.latex.breaker.enabled:true}") boolean enabled,
+                                @Value("${resumebuilder.latex.breaker.window-size:20}") int windowSize,
+                                @Value("${resumebuilder.latex.breaker.min-calls:5}") int minCalls,
+                                @Value("${resumebuilder.latex.breaker.failure-rate-percent:50}") int failureRatePercent,
+                                @Value("${resumebuilder.latex.breaker.open-ms:30000}") long openMs) {
+        this.enabled = enabled;
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.max(1, Math.min(minCalls, this.windowSize));
+        this.failureRatePercent = Math.max(1, Math.min(failureRatePercent, 100));
+        this.openMs = Math.max(0, openMs);
+    }
+
+    /** An admitted compile; report how it went with {@link #finish}. */
+    public final class Call {
+        private final String templateId;
+        private final Breaker breaker;
+        private final boolean probe;
+
+        private Call(String templateId, Breaker breaker, boolean probe) {
+            this.templateId = templateId;
+            this.breaker = breaker;
+            this.probe = probe;
+        }
+
+        public void finish(Outcome outcome) {
+            if (breaker != null) breaker.record(templateId, outcome, probe);
+        }
+    }
+
+    /** Admits a compile for the template, or returns null if its breaker is open (or half-open with a probe running). */
+    public Call tryAcquire(String templateId) {
+        if (!enabled) return new Call(templateId, null, false);
+        Breaker breaker = breakers.computeIfAbsent(templateId, id -> new Breaker());
+        Boolean probe = breaker.tryAcquire();
+        return probe != null ? new Call(templateId, breaker, probe) : null;
+    }
+
+    /** Breaker state per template that has compiled on this node, by template id. */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> states = new TreeMap<>();
+        breakers.forEach((templateId, breaker) -> states.put(templateId, breaker.snapshot()));
+        return states;
+    }
+
+    /** True if any template's breaker is not closed. */
+    public boolean isDegraded() {
+        return breakers.values().stream().anyMatch(breaker -> breaker.snapshot().state() != State.CLOSED);
+    }
+
+    private final class Breaker {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Ring of the last windowSize outcomes, true = failed
+        private final boolean[] window = new boolean[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private State state = State.CLOSED;
+        private long openUntilMillis;
+        private boolean probing;
+
+        // null = refused, otherwise whether the admitted call is the half-open probe
+        Boolean tryAcquire() {
+            lock.lock();
+            try {
+                if (state == State.OPEN) {
+                    if (System.currentTimeMillis() < openUntilMillis) return null;
+                    state = State.HALF_OPEN;
+                }
+                if (state == State.HALF_OPEN) {
+                    if (probing) return null;
+                    probing = true;
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void record(String templateId, Outcome outcome, boolean probe) {
+            lock.lock();
+            try {
+                if (probe) {
+                    probing = false;
+                    if (outcome == Outcome.SUCCESS) {
+                        reset();
+                        logger.info("pdflatex circuit for template {} closed after a successful probe", templateId);
+                    } else if (outcome == Outcome.FAILURE) {
+                        open();
+                        logger.warn("pdflatex circuit for template {} reopened: probe failed", templateId);
+                    }
+                    return;
+                }
+                // Outcomes of compiles admitted before the breaker opened do not change an open breaker
+                if (state != State.CLOSED || outcome == Outcome.ABANDONED) return;
+                boolean failed = outcome == Outcome.FAILURE;
+                if (calls == windowSize) {
+                    if (window[next]) failures--;
+                } else {
+                    calls++;
+                }
+                window[next] = failed;
+                if (failed) failures++;
+                next = (next + 1) % windowSize;
+                if (calls >= minCalls && failures * 100 >= failureRatePercent * calls) {
+                    open();
+                    logger.warn("pdflatex circuit for template {} opened: {} of the last {} compiles failed",
+                            templateId, failures, calls);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Snapshot snapshot() {
+            lock.lock();
+            try {
+                Instant openUntil = state == State.OPEN ? Instant.ofEpochMilli(openUntilMillis) : null;
+                return new Snapshot(state, calls, failures, openUntil);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openUntilMillis = System.currentTimeMillis() + openMs;
+        }
+
+        private void reset() {
+            state = State.CLOSED;
+            calls = 0;
+            failures = 0;
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.RenderTask;
+import com.resumebuilder.model.Resume;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PDF render queue in the render_tasks collection, shared by API nodes (which enqueue and await) and render workers
+ * (RenderWorker, which claim tasks under a lease). Every state change is a single conditional update, so any number
+ * of nodes can use the queue without further coordination. Finished PDFs are handed over through PdfCache.
+ */
+@Service
+public class RenderQueue {
+
+    private final MongoTemplate mongoTemplate;
+    private final LatexPdfService latexPdfService;
+    private final PdfCache pdfCache;
+    // Tasks callers on this node are waiting for, by task id
+    private final Map<String, Awaited> waiting = new ConcurrentHashMap<>();
+
+    @Value("${resumebuilder.render-queue.enabled:false}")
+    private boolean enabled;
+
+    @Value("${resumebuilder.render-queue.wait-ms:20000}")
+    private long waitMs;
+
+    @Value("${resumebuilder.render-queue.max-attempts:3}")
+    private int maxAttempts;
+
+    public RenderQueue(MongoTemplate mongoTemplate, LatexPdfService latexPdfService, PdfCache pdfCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.latexPdfService = latexPdfService;
+        this.pdfCache = pdfCache;
+    }
+
+    /** Whether API nodes hand renders to workers instead of running pdflatex themselves. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Status DONE with the PDF, FAILED, or QUEUED/RUNNING if the PDF was not ready in time. */
+    public record Result(RenderTask.Status status, byte[] pdf) {}
+
+    /**
+     * Returns the cached PDF, or enqueues the render (joining an identical task if one exists) and returns the task's
+     * status without waiting for it.
+     */
+    public Result render(Resume resume, String templateId) throws IOException {
+        String source = latexPdfService.renderSource(resume, templateId);
+        if (source == null) return new Result(RenderTask.Status.FAILED, null);
+        String key = LatexPdfService.cacheKey(source);
+        byte[] cached = pdfCache.get(key);
+        if (cached != null) return new Result(RenderTask.Status.DONE, cached);
+        return settled(key, enqueue(key, source, resume, templateId).getStatus());
+    }
+
+    /**
+     * Like {@link #render}, but the returned future completes once a worker has finished the task, or with the task's
+     * status after wait-ms. No thread waits in the meantime: the tasks awaited on this node are checked together by
+     * {@link #pollWaiting}. Cancel the future when the caller goes away.
+     */
+    public CompletableFuture<Result> renderAsync(Resume resume, String templateId) throws IOException {
+        String source = latexPdfService.renderSource(resume, templateId);
+        if (source == null) return CompletableFuture.completedFuture(new Result(RenderTask.Status.FAILED, null));
+        String key = LatexPdfService.cacheKey(source);
+        byte[] cached = pdfCache.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(new Result(RenderTask.Status.DONE, cached));
+
+        Result result = settled(key, enqueue(key, source, resume, templateId).getStatus());
+        if (result.status() == RenderTask.Status.DONE || result.status() == RenderTask.Status.FAILED) {
+            return CompletableFuture.completedFuture(result);
+        }
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        Waiter waiter = new Waiter(future, System.currentTimeMillis() + waitMs);
+        waiting.compute(key, (k, awaited) -> {
+            if (awaited == null) awaited = new Awaited(source, resume, templateId);
+            awaited.waiters.add(waiter);
+            return awaited;
+        });
+        return future;
+    }
+
+    /**
+     * Checks every task awaited on this node with one query and completes the waiters of finished tasks, and those
+     * that have waited wait-ms with the current status. A task that is gone, or done but evicted from the cache, is
+     * queued again.
+     */
+    @Scheduled(fixedDelayString = "${resumebuilder.render-queue.poll-ms:250}")
+    public void pollWaiting() {
+        if (waiting.isEmpty()) return;
+        Query query = new Query(Criteria.where("_id").in(new ArrayList<>(waiting.keySet())));
+        query.fields().include("status");
+        Map<String, RenderTask.Status> statuses = new HashMap<>();
+        for (RenderTask task : mongoTemplate.find(query, RenderTask.class)) {
+            statuses.put(task.getId(), task.getStatus());
+        }
+
+        long now = System.currentTimeMillis();
+        List<Map.Entry<Waiter, Result>> completions = new ArrayList<>();
+        for (Map.Entry<String, Awaited> entry : waiting.entrySet()) {
+            String key = entry.getKey();
+            Awaited awaited = entry.getValue();
+            RenderTask.Status status = statuses.get(key);
+            Result current = status != null ? settled(key, status) : null;
+            if (current == null || (status == RenderTask.Status.DONE && current.pdf() == null)) {
+                // Gone, or done but since evicted from the cache: render again
+                current = settled(key, enqueue(key, awaited.source, awaited.resume, awaited.templateId).getStatus());
+            }
+            Result result = current;
+            boolean finished = result.status() == RenderTask.Status.DONE || result.status() == RenderTask.Status.FAILED;
+            // Completed outside the map lock, since completing runs the callers' callbacks
+            waiting.computeIfPresent(key, (k, live) -> {
+                live.waiters.removeIf(waiter -> {
+                    if (waiter.future().isDone()) return true;
+                    if (!finished && waiter.deadline() > now) return false;
+                    completions.add(Map.entry(waiter, result));
+                    return true;
+                });
+                return live.waiters.isEmpty() ? null : live;
+            });
+        }
+        completions.forEach(completion -> completion.getKey().future().complete(completion.getValue()));
+    }
+
+    // The result for a task in the given status; DONE without a cached PDF counts as QUEUED (it must render again)
+    private Result settled(String key, RenderTask.Status status) {
+        if (status == RenderTask.Status.DONE) {
+            byte[] pdf = pdfCache.get(key);
+            return pdf != null ? new Result(RenderTask.Status.DONE, pdf) : new Result(RenderTask.Status.QUEUED, null);
+        }
+        return new Result(status, null);
+    }
+
+    /**
+     * Creates the task, or returns the live one with the same key. A finished task is queued again, since the caller
+     * only enqueues after missing the cache.
+     */
+    RenderTask enqueue(String key, String source, Resume resume, String templateId) {
+        Instant now = Instant.now();
+        Update insert = new Update()
+                .setOnInsert("source", source)
+                .setOnInsert("resumeId", resume.getId())
+                .setOnInsert("userId", resume.getUserId())
+                .setOnInsert("templateId", templateId)
+                .setOnInsert("status", RenderTask.Status.QUEUED)
+                .setOnInsert("attempts", 0)
+                .setOnInsert("visibleAt", now)
+                .setOnInsert("createdAt", now);
+        RenderTask task;
+        try {
+            task = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(key)), insert,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), RenderTask.class);
+        } catch (DuplicateKeyException e) {
+            // Two nodes upserted the same key at once; the other insert won
+            task = mongoTemplate.findById(key, RenderTask.class);
+        }
+        if (task == null) return enqueue(key, source, resume, templateId);
+        if (task.getStatus() == RenderTask.Status.QUEUED || task.getStatus() == RenderTask.Status.RUNNING) return task;
+        Query finished = new Query(Criteria.where("_id").is(key)
+                .and("status").in(RenderTask.Status.DONE, RenderTask.Status.FAILED));
+        Update requeue = new Update()
+                .set("status", RenderTask.Status.QUEUED)
+                .set("attempts", 0)
+                .set("visibleAt", now)
+                .unset("leaseOwner")
+                .unset("error")
+                .unset("finishedAt");
+        RenderTask requeued = mongoTemplate.findAndModify(finished, requeue,
+                FindAndModifyOptions.options().returnNew(true), RenderTask.class);
+        return requeued != null ? requeued : mongoTemplate.findById(key, RenderTask.class);
+    }
+
+    /**
+     * Claims up to max claimable tasks (oldest first) for the worker, leasing each until now + lease.
+     * Each claim is one atomic findAndModify, so two workers never hold the same live lease.
+     */
+    public List<RenderTask> claim(String workerId, int max, Duration lease) {
+        List<RenderTask> claimed = new ArrayList<>();
+        while (claimed.size() < max) {
+            Instant now = Instant.now();
+            Query claimable = new Query(Criteria.where("status").in(RenderTask.Status.QUEUED, RenderTask.Status.RUNNING)
+                    .and("visibleAt").lte(now)
+                    .and("attempts").lt(maxAttempts))
+                    .with(Sort.by(Sort.Direction.ASC, "visibleAt"));
+            Update claim = new Update()
+                    .set("status", RenderTask.Status.RUNNING)
+                    .set("leaseOwner", workerId)
+                    .set("visibleAt", now.plus(lease))
+                    .inc("attempts", 1);
+            RenderTask task = mongoTemplate.findAndModify(claimable, claim,
+                    FindAndModifyOptions.options().returnNew(true), RenderTask.class);
+            if (task == null) break;
+            claimed.add(task);
+        }
+        return claimed;
+    }
+
+    /** Heartbeat: extends the worker's leases on the given tasks. Tasks reclaimed by another worker are not touched. */
+    public void extendLeases(String workerId, Collection<String> taskIds, Duration lease) {
+        if (taskIds.isEmpty()) return;
+        Query held = new Query(Criteria.where("_id").in(taskIds)
+                .and("status").is(RenderTask.Status.RUNNING)
+                .and("leaseOwner").is(workerId));
+        mongoTemplate.updateMulti(held, new Update().set("visibleAt", Instant.now().plus(lease)), RenderTask.class);
+    }
+
+    /** Marks the task done if the worker still holds it. The PDF must already be in the shared cache. */
+    public void complete(String taskId, String workerId) {
+        mongoTemplate.updateFirst(heldBy(taskId, workerId), new Update()
+                .set("status", RenderTask.Status.DONE)
+                .set("finishedAt", Instant.now())
+                .unset("error"), RenderTask.class);
+    }
+
+    /** Releases the task for another attempt after the backoff, or fails it once it has used max-attempts. */
+    public void fail(RenderTask task, String workerId, String error, Duration backoff) {
+        Instant now = Instant.now();
+        Update update = new Update().set("error", error);
+        if (task.getAttempts() >= maxAttempts) {
+            update.set("status", RenderTask.Status.FAILED).set("finishedAt", now);
+        } else {
+            update.set("status", RenderTask.Status.QUEUED).set("visibleAt", now.plus(backoff)).unset("leaseOwner");
+        }
+        mongoTemplate.updateFirst(heldBy(task.getId(), workerId), update, RenderTask.class);
+    }
+
+    /** Fails tasks whose last allowed attempt lost its lease (the worker died), so waiting API nodes stop waiting. */
+    public long failAbandoned() {
+        Instant now = Instant.now();
+        Query abandoned = new Query(Criteria.where("status").is(RenderTask.Status.RUNNING)
+                .and("visibleAt").lte(now)
+                .and("attempts").gte(maxAttempts));
+        return mongoTemplate.updateMulti(abandoned, new Update()
+                .set("status", RenderTask.Status.FAILED)
+                .set("error", "Lease expired on the final attempt")
+                .set("finishedAt", now), RenderTask.class).getModifiedCount();
+    }
+
+    private record Waiter(CompletableFuture<Result> future, long deadline) {}
+
+    // Guarded by the waiting map's per-key locking (compute / computeIfPresent)
+    private static final class Awaited {
+        final String source;
+        final Resume resume;
+        final String templateId;
+        final List<Waiter> waiters = new ArrayList<>();
+
+        Awaited(String source, Resume resume, String templateId) {
+            this.source = source;
+            this.resume = resume;
+            this.templateId = templateId;
+        }
+    }
+
+    private static Query heldBy(String taskId, String workerId) {
+        return new Query(Criteria.where("_id").is(taskId)
+                .and("status").is(RenderTask.Status.RUNNING)
+                .and("leaseOwner").is(workerId));
+    }
+}
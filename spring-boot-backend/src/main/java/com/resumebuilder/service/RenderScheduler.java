@@ -0,0 +1,267 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.security.services.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out this node's pdflatex slots fairly. When every slot is busy, waiting compiles are queued per user and
+ * granted by priority class first (ADMIN, then INTERACTIVE, then BULK) and round-robin across users within a class,
+ * so one user with many queued renders gets one slot at a time like everybody else.
+ * Each user has a token bucket (resumebuilder.render-scheduler.user-burst, refilled at user-refill-per-minute): a
+ * compile that finds a token runs as INTERACTIVE, one that finds the bucket empty still runs but as BULK, behind every
+ * interactive compile. Admins are exempt from the bucket. Only compiles take tokens; cache hits and requests that join
+ * a compile already in flight are free. Time spent waiting for a slot is kept as a histogram per class for the admin
+ * API.
+ */
+@Service
+public class RenderScheduler {
+
+    /** Upper bounds (ms) of the queue-wait histogram buckets; the last bucket is everything above. */
+    private static final long[] WAIT_BUCKETS_MS = {0, 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private static final String SYSTEM_USER = "system";
+
+    public enum Priority { ADMIN, INTERACTIVE, BULK }
+
+    /** Who a compile is for. userId null means background work (e.g. template thumbnails), which always runs as BULK. */
+    public record Requester(String userId, boolean admin) {
+        public static final Requester SYSTEM = new Requester(null, false);
+
+        /** The requester for an authenticated request, or SYSTEM if it carries no user. */
+        public static Requester of(Authentication authentication) {
+            if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl user)) return SYSTEM;
+            boolean admin = user.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+            return new Requester(user.getId(), admin);
+        }
+    }
+
+    /** A granted slot; close it when pdflatex is done. */
+    public final class Permit implements AutoCloseable {
+        private boolean released;
+
+        private Permit() {}
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (released) return;
+                released = true;
+                grantNext();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public record WaitBucket(Long upToMs, long count) {}
+
+    public record ClassStats(int waiting, int usersWaiting, long granted, long timedOut, List<WaitBucket> waitHistogram) {}
+
+    public record Stats(int slots, int busy, Map<Priority, ClassStats> classes) {}
+
+    private final int slots;
+    private final int userBurst;
+    private final double tokensPerNano;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Per class, each waiting user's compiles in arrival order; the map's order is the round-robin order
+    private final Map<Priority, LinkedHashMap<String, Deque<Waiter>>> queues = new EnumMap<>(Priority.class);
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+    private final Map<Priority, ClassCounters> counters = new EnumMap<>(Priority.class);
+    private int free;
+
+    public RenderScheduler(@Value("${resumebuilder.latex.max-concurrent-renders:0}") int maxConcurrentRenders,
+                           @Value("${resumebuilder.render-scheduler.user-burst:5}") int userBurst,
+                           @Value("${resumebuilder.render-scheduler.user-refill-per-minute:10}") double userRefillPerMinute) {
+        this.slots = maxConcurrentRenders > 0 ? maxConcurrentRenders : Runtime.getRuntime().availableProcessors();
+        this.free = slots;
+        this.userBurst = Math.max(1, userBurst);
+        this.tokensPerNano = Math.max(0, userRefillPerMinute) / TimeUnit.MINUTES.toNanos(1);
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            counters.put(priority, new ClassCounters());
+        }
+    }
+
+    /**
+     * Waits up to timeout for a slot, in fair-share order. Returns null if none was granted in time.
+     * If interrupted while waiting, the place in the queue is given up and InterruptedException is thrown.
+     */
+    public Permit acquire(Requester requester, long timeout, TimeUnit unit) throws InterruptedException {
+        long started = System.nanoTime();
+        Waiter waiter;
+        lock.lock();
+        try {
+            Priority priority = classify(requester, started);
+            if (free > 0 && nobodyWaiting()) {
+                free--;
+                counters.get(priority).recordWait(0);
+                return new Permit();
+            }
+            waiter = new Waiter(userKey(requester), priority, started, lock.newCondition());
+            queues.get(priority).computeIfAbsent(waiter.user, u -> new ArrayDeque<>()).addLast(waiter);
+
+            long remaining = unit.toNanos(timeout);
+            try {
+                while (!waiter.granted && remaining > 0) {
+                    remaining = waiter.turn.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) grantNext();
+                else dequeue(waiter);
+                throw e;
+            }
+            if (!waiter.granted) {
+                dequeue(waiter);
+                counters.get(priority).timedOut++;
+                return null;
+            }
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Slot usage and per-class queue state and wait histograms on this node. */
+    public Stats stats() {
+        lock.lock();
+        try {
+            Map<Priority, ClassStats> classes = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                LinkedHashMap<String, Deque<Waiter>> queue = queues.get(priority);
+                int waiting = queue.values().stream().mapToInt(Deque::size).sum();
+                ClassCounters c = counters.get(priority);
+                List<WaitBucket> histogram = new ArrayList<>();
+                for (int i = 0; i <= WAIT_BUCKETS_MS.length; i++) {
+                    histogram.add(new WaitBucket(i < WAIT_BUCKETS_MS.length ? WAIT_BUCKETS_MS[i] : null, c.waits[i]));
+                }
+                classes.put(priority, new ClassStats(waiting, queue.size(), c.granted, c.timedOut, histogram));
+            }
+            return new Stats(slots, slots - free, classes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Forgets buckets that have refilled completely; a user's next compile starts with a full bucket anyway. */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeIdleBuckets() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            buckets.values().removeIf(bucket -> bucket.refill(now, userBurst, tokensPerNano) >= userBurst);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private Priority classify(Requester requester, long now) {
+        if (requester.admin()) return Priority.ADMIN;
+        if (requester.userId() == null) return Priority.BULK;
+        TokenBucket bucket = buckets.computeIfAbsent(requester.userId(), u -> new TokenBucket(userBurst, now));
+        if (bucket.refill(now, userBurst, tokensPerNano) < 1) return Priority.BULK;
+        bucket.tokens--;
+        return Priority.INTERACTIVE;
+    }
+
+    // Called with the lock held: passes a freed slot to the next waiter, or returns it to the pool
+    private void grantNext() {
+        for (Priority priority : Priority.values()) {
+            LinkedHashMap<String, Deque<Waiter>> queue = queues.get(priority);
+            Iterator<Map.Entry<String, Deque<Waiter>>> users = queue.entrySet().iterator();
+            if (!users.hasNext()) continue;
+            Map.Entry<String, Deque<Waiter>> next = users.next();
+            users.remove();
+            Waiter waiter = next.getValue().pollFirst();
+            // Re-inserting moves the user to the back of the rotation
+            if (!next.getValue().isEmpty()) queue.put(next.getKey(), next.getValue());
+            waiter.granted = true;
+            counters.get(priority).recordWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waiter.enqueuedAt));
+            waiter.turn.signal();
+            return;
+        }
+        free++;
+    }
+
+    private void dequeue(Waiter waiter) {
+        LinkedHashMap<String, Deque<Waiter>> queue = queues.get(waiter.priority);
+        Deque<Waiter> waiting = queue.get(waiter.user);
+        if (waiting == null) return;
+        waiting.remove(waiter);
+        if (waiting.isEmpty()) queue.remove(waiter.user);
+    }
+
+    private boolean nobodyWaiting() {
+        for (LinkedHashMap<String, Deque<Waiter>> queue : queues.values()) {
+            if (!queue.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    private static String userKey(Requester requester) {
+        return requester.userId() != null ? requester.userId() : SYSTEM_USER;
+    }
+
+    private static final class Waiter {
+        final String user;
+        final Priority priority;
+        final long enqueuedAt;
+        final Condition turn;
+        boolean granted;
+
+        Waiter(String user, Priority priority, long enqueuedAt, Condition turn) {
+            this.user = user;
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+            this.turn = turn;
+        }
+    }
+
+    private static final class TokenBucket {
+        double tokens;
+        long refilledAt;
+
+        TokenBucket(int burst, long now) {
+            this.tokens = burst;
+            this.refilledAt = now;
+        }
+
+        double refill(long now, int burst, double tokensPerNano) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            return tokens;
+        }
+    }
+
+    // Guarded by the scheduler lock
+    private static final class ClassCounters {
+        final long[] waits = new long[WAIT_BUCKETS_MS.length + 1];
+        long granted;
+        long timedOut;
+
+        void recordWait(long millis) {
+            granted++;
+            int i = 0;
+            while (i < WAIT_BUCKETS_MS.length && millis > WAIT_BUCKETS_MS[i]) i++;
+            waits[i]++;
+        }
+    }
+}
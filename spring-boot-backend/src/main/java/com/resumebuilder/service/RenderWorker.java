@@ -0,0 +1,117 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.RenderTask;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render worker for the RenderQueue, active with resumebuilder.render-queue.worker.enabled (the "worker" profile).
+ * Each poll claims as many tasks as the worker has free slots, renders them with LatexPdfService, stores the PDF in
+ * the shared cache and only then marks the task done. Leases are renewed by a heartbeat while pdflatex runs; if this
+ * process dies, its tasks become claimable again when their leases run out.
+ */
+@Service
+public class RenderWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderWorker.class);
+
+    private final RenderQueue renderQueue;
+    private final LatexPdfService latexPdfService;
+    private final PdfCache pdfCache;
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final int capacity;
+    private final ExecutorService executor;
+
+    @Value("${resumebuilder.render-queue.worker.enabled:false}")
+    private boolean enabled;
+
+    @Value("${resumebuilder.render-queue.worker.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${resumebuilder.render-queue.worker.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    public RenderWorker(RenderQueue renderQueue, LatexPdfService latexPdfService, PdfCache pdfCache,
+                        @Value("${resumebuilder.render-queue.worker.capacity:0}") int capacity) {
+        this.renderQueue = renderQueue;
+        this.latexPdfService = latexPdfService;
+        this.pdfCache = pdfCache;
+        this.capacity = capacity > 0 ? capacity : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(this.capacity, runnable -> {
+            Thread thread = new Thread(runnable, "render-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Unfinished tasks are picked up by another worker once their leases expire
+        executor.shutdown();
+        executor.awaitTermination(LatexPdfService.RENDER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.render-queue.worker.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) return;
+        try {
+            renderQueue.failAbandoned();
+            int free = capacity - inFlight.size();
+            if (free <= 0) return;
+            List<RenderTask> claimed = renderQueue.claim(workerId, free, Duration.ofMillis(leaseMs));
+            for (RenderTask task : claimed) {
+                inFlight.add(task.getId());
+                executor.execute(() -> run(task));
+            }
+        } catch (Exception e) {
+            logger.warn("Render queue poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.render-queue.worker.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!enabled) return;
+        try {
+            renderQueue.extendLeases(workerId, Set.copyOf(inFlight), Duration.ofMillis(leaseMs));
+        } catch (Exception e) {
+            logger.warn("Render lease heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void run(RenderTask task) {
+        try {
+            byte[] pdf = latexPdfService.compile(task.getSource(),
+                    new RenderScheduler.Requester(task.getUserId(), false));
+            if (pdf == null) {
+                renderQueue.fail(task, workerId, "pdflatex failed", Duration.ofMillis(retryBackoffMs));
+                return;
+            }
+            pdfCache.putBlocking(task.getId(), pdf);
+            renderQueue.complete(task.getId(), workerId);
+        } catch (Exception e) {
+            logger.warn("Render task {} (attempt {}) failed: {}", task.getId(), task.getAttempts(), e.getMessage());
+            try {
+                renderQueue.fail(task, workerId, e.getMessage(), Duration.ofMillis(retryBackoffMs));
+            } catch (Exception ignored) {
+                // The lease runs out and the task is retried
+            }
+        } finally {
+            inFlight.remove(task.getId());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.model.ResumeRevision;
+import com.resumebuilder.payload.response.ResumeDiffResponse;
+import com.resumebuilder.payload.response.ResumeRevisionSummary;
+import com.resumebuilder.repository.ResumeRevisionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Resume version history as periodic full snapshots plus section-level deltas (see ResumeRevision).
+ * Recording costs one small insert per save and no reads: a full snapshot is taken for a new resume and for every
+ * save that reaches or passes a multiple of full-snapshot-interval, even when one save advances the version by several
+ * steps (as a coalesced autosave burst does). So rebuilding any version reads one full revision and at most
+ * interval - 1 deltas. Versions of a resume that predates history, recorded before its first snapshot, cannot be
+ * rebuilt.
+ */
+@Service
+public class ResumeHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeHistoryService.class);
+
+    private final ResumeRevisionRepository resumeRevisionRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${resumebuilder.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resumebuilder.history.full-snapshot-interval:10}")
+    private int fullSnapshotInterval;
+
+    public ResumeHistoryService(ResumeRevisionRepository resumeRevisionRepository, MongoTemplate mongoTemplate) {
+        this.resumeRevisionRepository = resumeRevisionRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Copies the current sections and version of a resume, to be passed to {@link #recordChange} after it is modified.
+     */
+    public Resume capture(Resume resume) {
+        Resume copy = new Resume();
+        copy.setVersion(resume.getVersion());
+        for (Section section : Section.values()) {
+            section.setOnResume(copy, section.getFromResume(resume));
+        }
+        return copy;
+    }
+
+    /** Copies onto target every section that differs between before and after. */
+    public void applyChanges(Resume before, Resume after, Resume target) {
+        for (Section section : Section.values()) {
+            Object value = section.getFromResume(after);
+            if (!Objects.equals(section.getFromResume(before), value)) {
+                section.setOnResume(target, value);
+            }
+        }
+    }
+
+    /** Records a newly created resume (always a full snapshot). */
+    public void recordCreated(Resume saved) {
+        record(saved, List.of(Section.values()), null);
+    }
+
+    /**
+     * Records the sections that differ between the captured previous state and the saved resume.
+     * Falls back to a full snapshot if there is no previous state or a snapshot is due (see {@link #record}).
+     */
+    public void recordChange(Resume previous, Resume saved) {
+        List<Section> changed = new ArrayList<>();
+        for (Section section : Section.values()) {
+            if (previous == null || !Objects.equals(section.getFromResume(previous), section.getFromResume(saved))) {
+                changed.add(section);
+            }
+        }
+        record(saved, changed, previous != null ? previous.getVersion() : null);
+    }
+
+    /** Records a partial update whose changed sections are known (e.g. PATCH). */
+    public void recordSections(Resume saved, Collection<String> sectionNames) {
+        List<Section> changed = sectionNames.stream().map(Section::byName).filter(Objects::nonNull).toList();
+        // A PATCH advances the version by one
+        long version = saved.getVersion() != null ? saved.getVersion() : 0L;
+        record(saved, changed, version - 1);
+    }
+
+    /** Newest first, without section contents. */
+    public List<ResumeRevisionSummary> listRevisions(String resumeId, int limit) {
+        Query query = new Query(Criteria.where("resumeId").is(resumeId))
+                .with(Sort.by(Sort.Direction.DESC, "version"))
+                .limit(limit);
+        query.fields().include("version", "full", "changed", "createdAt");
+        return mongoTemplate.find(query, ResumeRevision.class).stream()
+                .map(r -> new ResumeRevisionSummary(r.getVersion(), r.isFull(), r.getChanged(),
+                        r.getCreatedAt() != null ? r.getCreatedAt().toString() : ""))
+                .toList();
+    }
+
+    /**
+     * Rebuilds the resume sections as they were at the given version. Empty if that version was never
+     * recorded or its base snapshot has expired.
+     */
+    public Optional<Resume> reconstruct(Resume current, long version) {
+        String resumeId = current.getId();
+        if (!resumeRevisionRepository.existsByResumeIdAndVersion(resumeId, version)) {
+            return Optional.empty();
+        }
+        Optional<ResumeRevision> base = resumeRevisionRepository
+                .findFirstByResumeIdAndFullIsTrueAndVersionLessThanEqualOrderByVersionDesc(resumeId, version);
+        if (base.isEmpty()) {
+            return Optional.empty();
+        }
+        Resume state = new Resume();
+        state.setId(resumeId);
+        state.setUserId(current.getUserId());
+        state.setCreatedAt(current.getCreatedAt());
+        state.setVersion(version);
+        apply(base.get(), state);
+        List<ResumeRevision> deltas = resumeRevisionRepository
+                .findByResumeIdAndVersionGreaterThanAndVersionLessThanEqualOrderByVersionAsc(resumeId, base.get().getVersion(), version);
+        for (ResumeRevision delta : deltas) {
+            apply(delta, state);
+        }
+        state.setUpdatedAt(deltas.isEmpty() ? base.get().getCreatedAt() : deltas.get(deltas.size() - 1).getCreatedAt());
+        return Optional.of(state);
+    }
+
+    public ResumeDiffResponse diff(Resume from, Resume to) {
+        Map<String, ResumeDiffResponse.Change> changes = new LinkedHashMap<>();
+        for (Section section : Section.values()) {
+            Object before = section.getFromResume(from);
+            Object after = section.getFromResume(to);
+            if (!Objects.equals(before, after)) {
+                changes.put(section.fieldName, new ResumeDiffResponse.Change(before, after));
+            }
+        }
+        return new ResumeDiffResponse(from.getVersion(), to.getVersion(), changes);
+    }
+
+    public void deleteHistory(String resumeId) {
+        mongoTemplate.remove(new Query(Criteria.where("resumeId").is(resumeId)), ResumeRevision.class);
+    }
+
+    public void deleteHistoryForUser(String userId) {
+        mongoTemplate.remove(new Query(Criteria.where("userId").is(userId)), ResumeRevision.class);
+    }
+
+    // A full revision is stored whenever the save reached or passed a multiple of fullSnapshotInterval (or the
+    // previous version is unknown), so every delta has a full revision fewer than fullSnapshotInterval versions back
+    private void record(Resume saved, List<Section> changed, Long previousVersion) {
+        if (!enabled || saved.getId() == null) return;
+        long version = saved.getVersion() != null ? saved.getVersion() : 0L;
+        int interval = Math.max(1, fullSnapshotInterval);
+        boolean full = previousVersion == null
+                || Math.floorDiv(previousVersion, interval) != Math.floorDiv(version, interval);
+        if (!full && changed.isEmpty()) return;
+
+        ResumeRevision revision = new ResumeRevision();
+        revision.setResumeId(saved.getId());
+        revision.setUserId(saved.getUserId());
+        revision.setVersion(version);
+        revision.setFull(full);
+        revision.setCreatedAt(saved.getUpdatedAt() != null ? saved.getUpdatedAt() : Instant.now());
+        for (Section section : full ? List.of(Section.values()) : changed) {
+            section.setOnRevision(revision, section.getFromResume(saved));
+            revision.getChanged().add(section.fieldName);
+        }
+        try {
+            resumeRevisionRepository.insert(revision);
+        } catch (Exception e) {
+            // History is best-effort; never fail the save because of it
+            logger.warn("Failed to record revision {} of resume {}: {}", version, saved.getId(), e.getMessage());
+        }
+    }
+
+    private static void apply(ResumeRevision revision, Resume state) {
+        for (String name : revision.getChanged()) {
+            Section section = Section.byName(name);
+            if (section != null) {
+                section.setOnResume(state, section.getFromRevision(revision));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private enum Section {
+        NAME("name", Resume::getName, (r, v) -> r.setName((String) v),
+                ResumeRevision::getName, (r, v) -> r.setName((String) v)),
+        TEMPLATE("template", Resume::getTemplate, (r, v) -> r.setTemplate((String) v),
+                ResumeRevision::getTemplate, (r, v) -> r.setTemplate((String) v)),
+        PERSONAL_INFO("personalInfo", Resume::getPersonalInfo, (r, v) -> r.setPersonalInfo((Resume.PersonalInfo) v),
+                ResumeRevision::getPersonalInfo, (r, v) -> r.setPersonalInfo((Resume.PersonalInfo) v)),
+        EXPERIENCE("experience", Resume::getExperience, (r, v) -> r.setExperience((List<Resume.Experience>) v),
+                ResumeRevision::getExperience, (r, v) -> r.setExperience((List<Resume.Experience>) v)),
+        EDUCATION("education", Resume::getEducation, (r, v) -> r.setEducation((List<Resume.Education>) v),
+                ResumeRevision::getEducation, (r, v) -> r.setEducation((List<Resume.Education>) v)),
+        SKILLS("skills", Resume::getSkills, (r, v) -> r.setSkills((List<Resume.Skill>) v),
+                ResumeRevision::getSkills, (r, v) -> r.setSkills((List<Resume.Skill>) v)),
+        PROJECTS("projects", Resume::getProjects, (r, v) -> r.setProjects((List<Resume.Project>) v),
+                ResumeRevision::getProjects, (r, v) -> r.setProjects((List<Resume.Project>) v)),
+        ACHIEVEMENTS("achievements", Resume::getAchievements, (r, v) -> r.setAchievements((List<Resume.Achievement>) v),
+                ResumeRevision::getAchievements, (r, v) -> r.setAchievements((List<Resume.Achievement>) v));
+
+        private final String fieldName;
+        private final Function<Resume, Object> resumeGetter;
+        private final BiConsumer<Resume, Object> resumeSetter;
+        private final Function<ResumeRevision, Object> revisionGetter;
+        private final BiConsumer<ResumeRevision, Object> revisionSetter;
+
+        Section(String fieldName,
+                Function<Resume, Object> resumeGetter, BiConsumer<Resume, Object> resumeSetter,
+                Function<ResumeRevision, Object> revisionGetter, BiConsumer<ResumeRevision, Object> revisionSetter) {
+            this.fieldName = fieldName;
+            this.resumeGetter = resumeGetter;
+            this.resumeSetter = resumeSetter;
+            this.revisionGetter = revisionGetter;
+            this.revisionSetter = revisionSetter;
+        }
+
+        Object getFromResume(Resume resume) {
+            return resumeGetter.apply(resume);
+        }
+
+        void setOnResume(Resume resume, Object value) {
+            resumeSetter.accept(resume, value);
+        }
+
+        Object getFromRevision(ResumeRevision revision) {
+            return revisionGetter.apply(revision);
+        }
+
+        void setOnRevision(ResumeRevision revision, Object value) {
+            revisionSetter.accept(revision, value);
+        }
+
+        static Section byName(String name) {
+            for (Section section : values()) {
+                if (section.fieldName.equals(name)) return section;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.payload.response.AdminPageResponse;
+import com.resumebuilder.payload.response.ResumeSearchHit;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Ranked full-text search over resume contents, backed by the Mongo text index declared on Resume
+ * (so it is maintained by Mongo on every write). Only summary fields and the text score are fetched.
+ */
+@Service
+public class ResumeSearchService {
+
+    private static final String SCORE_FIELD = "score";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ResumeSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Searches resumes owned by userId, or all resumes if userId is null. Results are ordered by relevance.
+     */
+    public AdminPageResponse<ResumeSearchHit> search(String text, String userId, int page, int size) {
+        return search(text, userId, List.of(), page, size);
+    }
+
+    /** Like {@link #search(String, String, int, int)}, leaving out resumes owned by excludedUserIds. */
+    public AdminPageResponse<ResumeSearchHit> search(String text, String userId, Collection<String> excludedUserIds,
+                                                     int page, int size) {
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(text);
+
+        Query query = TextQuery.queryText(criteria).sortByScore().includeScore(SCORE_FIELD)
+                .skip((long) page * size)
+                .limit(size);
+        query.fields().include("name", "userId", "template", "updatedAt");
+        Query countQuery = TextQuery.queryText(criteria);
+        if (userId != null) {
+            query.addCriteria(Criteria.where("userId").is(userId));
+            countQuery.addCriteria(Criteria.where("userId").is(userId));
+        } else if (!excludedUserIds.isEmpty()) {
+            query.addCriteria(Criteria.where("userId").nin(excludedUserIds));
+            countQuery.addCriteria(Criteria.where("userId").nin(excludedUserIds));
+        }
+
+        String collection = mongoTemplate.getCollectionName(Resume.class);
+        List<ResumeSearchHit> hits = mongoTemplate.find(query, Document.class, collection).stream()
+                .map(ResumeSearchService::toHit)
+                .toList();
+        long total = mongoTemplate.count(countQuery, collection);
+        int totalPages = size > 0 ? (int) ((total + size - 1) / size) : 0;
+        return new AdminPageResponse<>(hits, total, totalPages, page);
+    }
+
+    private static ResumeSearchHit toHit(Document doc) {
+        Object updatedAt = doc.get("updatedAt");
+        String updated = updatedAt instanceof Date date ? date.toInstant().toString()
+                : updatedAt != null ? updatedAt.toString() : "";
+        Number score = doc.get(SCORE_FIELD, Number.class);
+        return new ResumeSearchHit(
+                String.valueOf(doc.get("_id")),
+                doc.getString("name"),
+                doc.getString("userId"),
+                doc.getString("template") != null ? doc.getString("template") : "default",
+                updated,
+                score != null ? score.doubleValue() : 0);
+    }
+}
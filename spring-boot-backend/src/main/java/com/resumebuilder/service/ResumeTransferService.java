@@ -0,0 +1,195 @@
+package com.resumebuilder.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.bulk.BulkWriteError;
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.payload.response.ResumeImportResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bulk resume import/export as newline-delimited JSON (one Resume document per line).
+ * Both directions stream, so memory use does not depend on the number of documents.
+ */
+@Service
+public class ResumeTransferService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectReader resumeReader;
+    private final ObjectWriter resumeWriter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${resumebuilder.transfer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${resumebuilder.transfer.max-line-chars:1048576}")
+    private int maxLineChars;
+
+    public ResumeTransferService(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.resumeReader = objectMapper.readerFor(Resume.class);
+        // Let the output stream decide when to flush instead of flushing after every document
+        this.resumeWriter = objectMapper.writerFor(Resume.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes all resumes (or only those of userId), except those of excludedUserIds, to the stream, one JSON
+     * document per line, reading them through a Mongo cursor.
+     */
+    public void exportNdjson(String userId, Collection<String> excludedUserIds, OutputStream out) throws IOException {
+        Criteria owner = Criteria.where("userId").nin(excludedUserIds);
+        if (userId != null) owner.in(userId);
+        Query query = new Query(owner);
+        query.cursorBatchSize(batchSize);
+        try (Stream<Resume> resumes = mongoTemplate.stream(query, Resume.class);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<Resume> iterator = resumes.iterator();
+            boolean any = false;
+            while (iterator.hasNext()) {
+                resumeWriter.writeValue(generator, iterator.next());
+                any = true;
+            }
+            if (any) generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * Reads one Resume JSON document per line and inserts them with unordered bulk inserts of batch-size
+     * documents. Lines that fail to parse, lack a userId, exceed max-line-chars or are rejected by Mongo (e.g.
+     * duplicate id) are reported with their line number; the rest of the batch is still inserted. An over-long
+     * line is skipped without being buffered, so one huge line cannot exhaust the heap.
+     */
+    public ResumeImportResponse importNdjson(InputStream in) throws IOException {
+        ImportResult result = new ImportResult();
+        List<Resume> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        LineReader reader = new LineReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), maxLineChars);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.next()) != null) {
+            lineNumber++;
+            if (reader.tooLong) {
+                result.fail(lineNumber, "Line longer than " + maxLineChars + " characters");
+                continue;
+            }
+            if (line.isBlank()) continue;
+            Resume resume;
+            try {
+                resume = resumeReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                result.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (resume.getUserId() == null || resume.getUserId().isBlank()) {
+                result.fail(lineNumber, "userId is required");
+                continue;
+            }
+            if (resume.getCreatedAt() == null) resume.setCreatedAt(now);
+            if (resume.getUpdatedAt() == null) resume.setUpdatedAt(resume.getCreatedAt());
+            if (resume.getVersion() == null) resume.setVersion(0L);
+            if (resume.getTemplate() == null || resume.getTemplate().isEmpty()) resume.setTemplate("default");
+
+            batch.add(resume);
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                insertBatch(batch, batchLines, result);
+            }
+        }
+        insertBatch(batch, batchLines, result);
+        return new ResumeImportResponse(result.imported, result.failed, result.errors);
+    }
+
+    private void insertBatch(List<Resume> batch, List<Long> batchLines, ImportResult result) {
+        if (batch.isEmpty()) return;
+        try {
+            result.imported += mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Resume.class)
+                    .insert(batch)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            result.imported += e.getResult().getInsertedCount();
+            for (BulkWriteError error : e.getErrors()) {
+                result.fail(batchLines.get(error.getIndex()), error.getMessage());
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    /** Reads lines like BufferedReader.readLine, but keeps at most maxChars of a line in memory. */
+    private static final class LineReader {
+        private final BufferedReader reader;
+        private final int maxChars;
+        private final StringBuilder line = new StringBuilder();
+        // Whether the line last returned by next() was cut off (it is then returned empty)
+        boolean tooLong;
+
+        LineReader(BufferedReader reader, int maxChars) {
+            this.reader = reader;
+            this.maxChars = Math.max(1, maxChars);
+        }
+
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (tooLong) continue;
+                if (line.length() >= maxChars) {
+                    tooLong = true;
+                    line.setLength(0);
+                } else {
+                    line.append((char) c);
+                }
+            }
+            if (c == -1 && line.isEmpty() && !tooLong) return null;
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') line.setLength(line.length() - 1);
+            return line.toString();
+        }
+    }
+
+    private static final class ImportResult {
+        long imported;
+        long failed;
+        final List<ResumeImportResponse.LineError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ResumeImportResponse.LineError(line, message));
+            }
+        }
+    }
+}
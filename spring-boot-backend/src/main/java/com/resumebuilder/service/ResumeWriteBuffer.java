@@ -0,0 +1,243 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.repository.ResumeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in write-behind buffer for autosave bursts (resumebuilder.autosave.coalesce.enabled).
+ * Successive PUTs to the same resume are merged in memory and written once the resume has been
+ * quiet for quiet-period-ms (or after max-delay-ms of continuous editing). Any read of a resume
+ * flushes its pending write first, so callers always see their own writes. Only the flushed state
+ * is recorded in the resume history, as one revision against the state before the burst.
+ * The flush only replaces the stored resume if it is still at the version the burst started from. If a PATCH or
+ * restore landed in between, the sections the burst changed are re-applied onto the current document and the
+ * conditional replace is retried, so neither side's acknowledged writes are lost; a burst on a deleted resume is
+ * dropped.
+ */
+@Service
+public class ResumeWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeWriteBuffer.class);
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final ResumeRepository resumeRepository;
+    private final ResumeHistoryService resumeHistoryService;
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    @Value("${resumebuilder.autosave.coalesce.enabled:false}")
+    private boolean enabled;
+
+    @Value("${resumebuilder.autosave.coalesce.quiet-period-ms:2000}")
+    private long quietPeriodMs;
+
+    @Value("${resumebuilder.autosave.coalesce.max-delay-ms:10000}")
+    private long maxDelayMs;
+
+    public ResumeWriteBuffer(ResumeRepository resumeRepository, ResumeHistoryService resumeHistoryService) {
+        this.resumeRepository = resumeRepository;
+        this.resumeHistoryService = resumeHistoryService;
+    }
+
+    public boolean isEnabled() {
+        return enabled && !shuttingDown;
+    }
+
+    /**
+     * Returns the latest state of the resume: the pending (unflushed) copy if there is one, otherwise the stored one.
+     */
+    public Optional<Resume> find(String id) {
+        PendingWrite entry = pending.get(id);
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                if (!entry.flushed) return Optional.of(copyOf(entry.resume));
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        return resumeRepository.findById(id);
+    }
+
+    /**
+     * Applies the mutation to the pending copy of the resume, loading it from Mongo if nothing is pending yet.
+     * Returns the merged state, or empty if the resume no longer exists.
+     */
+    public Optional<Resume> stage(String id, Consumer<Resume> mutation) {
+        while (true) {
+            PendingWrite entry = pending.get(id);
+            if (entry == null) {
+                Optional<Resume> stored = resumeRepository.findById(id);
+                if (stored.isEmpty()) return Optional.empty();
+                PendingWrite fresh = new PendingWrite(stored.get(), resumeHistoryService.capture(stored.get()));
+                entry = pending.putIfAbsent(id, fresh);
+                if (entry == null) entry = fresh;
+            }
+            entry.lock.lock();
+            try {
+                if (entry.flushed) continue; // raced with a flush; reload the stored state
+                mutation.accept(entry.resume);
+                entry.lastStagedAt = System.currentTimeMillis();
+                if (shuttingDown) flushLocked(id, entry);
+                return Optional.of(copyOf(entry.resume));
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /** Writes the pending update for this resume, if any. Call before reading it from Mongo. */
+    public void flush(String id) {
+        PendingWrite entry = pending.get(id);
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                flushLocked(id, entry);
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /** Writes all pending updates for resumes owned by the user. */
+    public void flushUser(String userId) {
+        pending.forEach((id, entry) -> {
+            if (userId.equals(entry.userId)) flush(id);
+        });
+    }
+
+    /** Drops the pending update for a resume that is being deleted. */
+    public void discard(String id) {
+        PendingWrite entry = pending.get(id);
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                entry.flushed = true;
+                pending.remove(id, entry);
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /** Drops pending updates for all resumes of a user that is being deleted. */
+    public void discardUser(String userId) {
+        pending.forEach((id, entry) -> {
+            if (userId.equals(entry.userId)) discard(id);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.autosave.coalesce.flush-interval-ms:500}")
+    public void flushDue() {
+        if (pending.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        pending.forEach((id, entry) -> {
+            if (now - entry.lastStagedAt >= quietPeriodMs || now - entry.firstStagedAt >= maxDelayMs) {
+                flush(id);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void drain() {
+        shuttingDown = true;
+        pending.keySet().forEach(this::flush);
+        if (!pending.isEmpty()) {
+            logger.warn("Shutting down with {} unflushed resume updates", pending.size());
+        }
+    }
+
+    private void flushLocked(String id, PendingWrite entry) {
+        if (entry.flushed) return;
+        try {
+            Resume saved = resumeRepository.replaceIfVersion(entry.resume, entry.baseVersion);
+            for (int attempt = 1; saved == null && attempt < MAX_FLUSH_ATTEMPTS; attempt++) {
+                if (!rebase(id, entry)) return;
+                saved = resumeRepository.replaceIfVersion(entry.resume, entry.baseVersion);
+            }
+            if (saved == null) {
+                // Still racing other writers; the entry stays pending and the next tick tries again
+                logger.warn("Buffered update for resume {} keeps conflicting; will retry", id);
+                return;
+            }
+            entry.flushed = true;
+            pending.remove(id, entry);
+            resumeHistoryService.recordChange(entry.baseline, saved);
+        } catch (Exception e) {
+            // Keep the entry so the next tick retries
+            logger.warn("Failed to flush buffered update for resume {}: {}", id, e.getMessage());
+        }
+    }
+
+    // The resume changed since the burst started: moves the burst's changes onto the current document.
+    // Returns false (and drops the entry) if the resume was deleted.
+    private boolean rebase(String id, PendingWrite entry) {
+        Optional<Resume> stored = resumeRepository.findById(id);
+        if (stored.isEmpty()) {
+            entry.flushed = true;
+            pending.remove(id, entry);
+            logger.info("Dropped buffered update for deleted resume {}", id);
+            return false;
+        }
+        Resume current = stored.get();
+        Resume rebased = copyOf(current);
+        resumeHistoryService.applyChanges(entry.baseline, entry.resume, rebased);
+        rebased.setUpdatedAt(entry.resume.getUpdatedAt());
+        rebased.setVersion(current.getVersion() != null ? current.getVersion() + 1 : 1L);
+        entry.resume = rebased;
+        entry.baseline = resumeHistoryService.capture(current);
+        entry.baseVersion = current.getVersion() != null ? current.getVersion() : 0L;
+        return true;
+    }
+
+    private static Resume copyOf(Resume source) {
+        Resume copy = new Resume();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setName(source.getName());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setTemplate(source.getTemplate());
+        copy.setVersion(source.getVersion());
+        copy.setPersonalInfo(source.getPersonalInfo());
+        copy.setExperience(source.getExperience());
+        copy.setEducation(source.getEducation());
+        copy.setSkills(source.getSkills());
+        copy.setProjects(source.getProjects());
+        copy.setAchievements(source.getAchievements());
+        return copy;
+    }
+
+    private static final class PendingWrite {
+        // Guarded by lock; replaced when the burst is rebased onto a newer stored version
+        Resume resume;
+        Resume baseline;
+        final String userId;
+        // Stored version the burst was applied to; the flush is conditioned on it
+        long baseVersion;
+        final long firstStagedAt = System.currentTimeMillis();
+        volatile long lastStagedAt = firstStagedAt;
+        boolean flushed;
+        // Not synchronized: the flush does a Mongo write while holding this, which would pin a virtual thread's carrier
+        final ReentrantLock lock = new ReentrantLock();
+
+        PendingWrite(Resume resume, Resume baseline) {
+            this.resume = resume;
+            this.baseline = baseline;
+            this.userId = resume.getUserId();
+            this.baseVersion = resume.getVersion() != null ? resume.getVersion() : 0L;
+        }
+    }
+}
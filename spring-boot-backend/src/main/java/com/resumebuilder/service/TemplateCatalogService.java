@@ -0,0 +1,144 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.util.ETags;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The template catalog served by /api/templates: HTML-only templates plus every LaTeX template found on the classpath.
+ * Shared by the servlet and reactive template controllers.
+ */
+@Service
+public class TemplateCatalogService {
+
+    private final LatexTemplateService latexTemplateService;
+    private final ResourcePatternResolver resourcePatternResolver;
+
+    private static final List<Map<String, Object>> HTML_ONLY_TEMPLATES = List.of(
+            createTemplate("default",      "Default",      "The standard modern resume template",                  false),
+            createTemplate("classic",      "Classic",      "Timeless black & white — trusted by recruiters worldwide", false),
+            createTemplate("jake",         "Jake",         "LaTeX-style academic resume — gold standard for tech roles", false),
+            createTemplate("modern",       "Modern",       "Dark sidebar with skill visualization — makes you stand out", false),
+            createTemplate("professional", "Professional", "Indigo accents, pill badges — perfect for corporate roles",  false),
+            createTemplate("creative",     "Creative",     "Timeline experience, emerald accents — for innovators",     false),
+            createTemplate("minimalist",   "Minimal",      "Ultra-clean with maximum whitespace — less is more",        false),
+            createTemplate("executive",    "Executive",    "Bold navy header — designed for senior leadership",         false)
+    );
+
+    // Classpath templates only change on deploy, so they are discovered once
+    private volatile Set<String> latexIds;
+
+    public TemplateCatalogService(LatexTemplateService latexTemplateService,
+                                  ResourcePatternResolver resourcePatternResolver) {
+        this.latexTemplateService = latexTemplateService;
+        this.resourcePatternResolver = resourcePatternResolver;
+    }
+
+    /** ETag of the full catalog, which is fully determined by the discovered LaTeX ids (HTML-only entries are constants). */
+    public String catalogEtag() {
+        return ETags.forContent(latexTemplateIds().stream().sorted().collect(Collectors.joining(",")));
+    }
+
+    /** The catalog response: {"templates": [...], "total": n}. */
+    public Map<String, Object> catalog() {
+        Set<String> ids = latexTemplateIds();
+        List<Map<String, Object>> templates = new ArrayList<>();
+
+        for (Map<String, Object> t : HTML_ONLY_TEMPLATES) {
+            String id = (String) t.get("id");
+            if (!ids.contains(id)) {
+                templates.add(t);
+            }
+        }
+        for (String id : ids.stream().sorted().collect(Collectors.toList())) {
+            templates.add(createTemplate(id, getTemplateName(id), getTemplateDescription(id), true));
+        }
+        // Sort so "default" stays first, then by id
+        templates.sort(Comparator.comparing((Map<String, Object> m) -> "default".equals(m.get("id")) ? "" : (String) m.get("id")));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("templates", templates);
+        response.put("total", templates.size());
+        return response;
+    }
+
+    /** A single template (with its LaTeX source when it has one), or null if the id is unknown. */
+    public Map<String, Object> findTemplate(String id) {
+        if (latexTemplateService.hasTemplate(id)) {
+            Map<String, Object> template = createTemplate(id, getTemplateName(id), getTemplateDescription(id), true);
+            try {
+                String latex = latexTemplateService.loadTemplate(id);
+                if (latex != null) template.put("latex", latex);
+            } catch (IOException ignored) {}
+            return template;
+        }
+        if (HTML_ONLY_TEMPLATES.stream().anyMatch(t -> id.equals(t.get("id")))) {
+            return createTemplate(id, getTemplateName(id), getTemplateDescription(id), false);
+        }
+        return null;
+    }
+
+    /** Ids of the LaTeX templates on the classpath. */
+    public Set<String> latexTemplateIds() {
+        Set<String> ids = latexIds;
+        if (ids == null) {
+            ids = Collections.unmodifiableSet(discoverLatexTemplateIds());
+            latexIds = ids;
+        }
+        return ids;
+    }
+
+    private Set<String> discoverLatexTemplateIds() {
+        Set<String> ids = new HashSet<>();
+        try {
+            Resource[] resources = resourcePatternResolver.getResources("classpath:templates/latex/*.tex");
+            for (Resource r : resources) {
+                String filename = r.getFilename();
+                if (filename != null && filename.endsWith(".tex")) {
+                    ids.add(filename.substring(0, filename.length() - 4));
+                }
+            }
+        } catch (IOException ignored) {}
+        return ids;
+    }
+
+    private static Map<String, Object> createTemplate(String id, String name, String description, boolean hasLatex) {
+        Map<String, Object> template = new HashMap<>();
+        template.put("id", id);
+        template.put("name", name);
+        template.put("description", description);
+        template.put("hasLatex", hasLatex);
+        return template;
+    }
+
+    private String getTemplateName(String id) {
+        switch (id) {
+            case "default": return "Default";
+            case "jake": return "Jake";
+            case "modern": return "Modern";
+            case "professional": return "Professional";
+            case "creative": return "Creative";
+            case "minimal": return "Minimal";
+            case "executive": return "Executive";
+            default: return id.isEmpty() ? id : id.substring(0, 1).toUpperCase() + id.substring(1);
+        }
+    }
+
+    private String getTemplateDescription(String id) {
+        switch (id) {
+            case "default": return "The standard modern resume template";
+            case "jake": return "LaTeX-based academic resume template inspired by Jake Gutierrez";
+            case "modern": return "A clean, contemporary design with a professional look";
+            case "professional": return "Traditional layout perfect for corporate environments";
+            case "creative": return "Unique design for creative industries";
+            case "minimal": return "Simple, elegant design with focus on content";
+            case "executive": return "Sophisticated design for senior positions";
+            default: return "LaTeX template: " + id;
+        }
+    }
+}
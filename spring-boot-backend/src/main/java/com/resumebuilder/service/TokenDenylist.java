@@ -0,0 +1,122 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.RevokedToken;
+import com.resumebuilder.repository.RevokedTokenRepository;
+import com.resumebuilder.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Revoked JWTs (by jti), persisted in revoked_tokens with a TTL at each token's expiry.
+ * Every token check first consults a local Bloom filter, so the common not-revoked case never touches Mongo;
+ * only filter hits (real revocations and ~1% false positives) are confirmed with an indexed _id lookup.
+ * Each node picks up revocations made elsewhere by polling for new entries every sync-interval-ms, and rebuilds
+ * its filter from scratch every rebuild-interval-ms so expired entries stop taking up space.
+ */
+@Service
+public class TokenDenylist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // Node clocks stamp revokedAt, so re-read a little behind the last sync; re-adding a jti is harmless
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private volatile BloomFilter filter;
+    private volatile Instant syncedUpTo;
+
+    @Value("${resumebuilder.token-denylist.expected-entries:100000}")
+    private long expectedEntries;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository, MongoTemplate mongoTemplate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Until the first successful build every check goes to Mongo (see mightBeRevoked)
+            logger.warn("Could not load the token denylist at startup: {}", e.getMessage());
+        }
+    }
+
+    /** Revokes the token with this jti until it expires. */
+    public void revoke(String jti, String userId, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(jti, userId, expiresAt, Instant.now()));
+        BloomFilter current = filter;
+        if (current != null) current.put(jti);
+    }
+
+    /**
+     * Non-blocking pre-check: false means the token is certainly not revoked (on this node's current view).
+     * Tokens without a jti (issued before revocation existed) cannot be revoked.
+     */
+    public boolean mightBeRevoked(String jti) {
+        if (jti == null) return false;
+        BloomFilter current = filter;
+        return current == null || current.mightContain(jti);
+    }
+
+    /** Full check; touches Mongo only when the Bloom filter reports a possible hit. */
+    public boolean isRevoked(String jti) {
+        return mightBeRevoked(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.token-denylist.sync-interval-ms:5000}",
+            initialDelayString = "${resumebuilder.token-denylist.sync-interval-ms:5000}")
+    public void syncRecent() {
+        BloomFilter current = filter;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+        Instant since = syncedUpTo.minus(SYNC_OVERLAP);
+        Instant now = Instant.now();
+        for (String jti : findJtis(Criteria.where("revokedAt").gte(since))) {
+            current.put(jti);
+        }
+        syncedUpTo = now;
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.token-denylist.rebuild-interval-ms:600000}",
+            initialDelayString = "${resumebuilder.token-denylist.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        List<String> jtis = findJtis(Criteria.where("expiresAt").gt(now));
+        BloomFilter fresh = BloomFilter.create(Math.max(expectedEntries, jtis.size() * 2L), FALSE_POSITIVE_RATE);
+        jtis.forEach(fresh::put);
+        // Anything revoked while we were reading is picked up by the next sync, which starts behind `now`
+        syncedUpTo = now;
+        filter = fresh;
+        logger.debug("Token denylist rebuilt with {} entries", jtis.size());
+    }
+
+    private List<String> findJtis(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include("_id");
+        List<String> jtis = new ArrayList<>();
+        try (Stream<Document> docs = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(RevokedToken.class))) {
+            docs.forEach(doc -> jtis.add(doc.getString("_id")));
+        }
+        return jtis;
+    }
+}
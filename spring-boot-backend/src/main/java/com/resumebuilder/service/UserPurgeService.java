@@ -0,0 +1,129 @@
+package com.resumebuilder.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.resumebuilder.model.PurgedUser;
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.model.User;
+import com.resumebuilder.repository.ResumeRepository;
+import com.resumebuilder.repository.UserRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cascading user deletion in the background. Deleting a user only sets User.deletedAt, which hides the
+ * user at once; this purger then removes their resumes in bounded batches (by _id, without loading
+ * documents) and finally the user itself. All state lives on the user document, so an interrupted purge
+ * simply continues on the next run, on any node.
+ */
+@Service
+public class UserPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+    private final ResumeRepository resumeRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ResumeWriteBuffer resumeWriteBuffer;
+    private final ResumeHistoryService resumeHistoryService;
+    private final UserRoleService userRoleService;
+
+    @Value("${resumebuilder.user-purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${resumebuilder.user-purge.batch-pause-ms:50}")
+    private long batchPauseMs;
+
+    public UserPurgeService(UserRepository userRepository, ResumeRepository resumeRepository,
+                            MongoTemplate mongoTemplate, ResumeWriteBuffer resumeWriteBuffer,
+                            ResumeHistoryService resumeHistoryService, UserRoleService userRoleService) {
+        this.userRepository = userRepository;
+        this.resumeRepository = resumeRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.resumeWriteBuffer = resumeWriteBuffer;
+        this.resumeHistoryService = resumeHistoryService;
+        this.userRoleService = userRoleService;
+    }
+
+    /**
+     * Marks the user for deletion. Returns NOT_FOUND if the user does not exist and LAST_ADMIN if it is the last admin.
+     */
+    public UserRoleService.Result markDeleted(String userId) {
+        UserRoleService.Result result = userRoleService.markDeleted(userId);
+        if (result == UserRoleService.Result.UPDATED) {
+            resumeWriteBuffer.discardUser(userId);
+        }
+        return result;
+    }
+
+    /** Ids of users marked for deletion whose purge has not finished; their resumes are hidden from admin lists. */
+    public List<String> pendingUserIds() {
+        Query query = new Query(Criteria.where("deletedAt").exists(true));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream().map(User::getId).toList();
+    }
+
+    /** The record of a finished purge of the user, kept for 30 days. */
+    public Optional<PurgedUser> purgeRecord(String userId) {
+        return Optional.ofNullable(mongoTemplate.findById(userId, PurgedUser.class));
+    }
+
+    @Scheduled(fixedDelayString = "${resumebuilder.user-purge.interval-ms:10000}")
+    public void purgePending() {
+        for (User user : userRepository.findByDeletedAtExists(true)) {
+            try {
+                purge(user.getId());
+            } catch (Exception e) {
+                logger.warn("Purge of user {} interrupted, will resume: {}", user.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void purge(String userId) {
+        while (true) {
+            Query batchQuery = new Query(Criteria.where("userId").is(userId)).limit(batchSize);
+            batchQuery.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(batchQuery, Document.class, mongoTemplate.getCollectionName(Resume.class))
+                    .stream()
+                    .map(doc -> doc.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) break;
+
+            DeleteResult result = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), Resume.class);
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                    new Update().inc("purgedResumes", result.getDeletedCount()), User.class);
+            if (ids.size() < batchSize || !pause()) break;
+        }
+        if (resumeRepository.countByUserId(userId) == 0) {
+            resumeWriteBuffer.discardUser(userId);
+            resumeHistoryService.deleteHistoryForUser(userId);
+            // Recorded before the user goes, so the purge status never loses track of it
+            userRepository.findById(userId).ifPresent(user -> mongoTemplate.save(
+                    new PurgedUser(userId, user.getDeletedAt(), user.getPurgedResumes(), Instant.now())));
+            userRepository.deleteById(userId);
+            logger.info("Purged user {}", userId);
+        }
+    }
+
+    // Spreads the delete load out between batches; returns false if interrupted (shutdown)
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.resumebuilder.service;
+
+import com.resumebuilder.model.User;
+import com.resumebuilder.repository.UserRepository;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Role changes and user deletion with a last-admin guard that holds under concurrent demotions.
+ * The number of admins (not marked for deletion) is kept in the counters collection. Taking away an admin first
+ * decrements it with a single conditional update (count > 1), so of two concurrent demotions of the last two admins
+ * only one can ever pass; the user is changed only after that. If the process dies in between, the count is one low,
+ * which can only refuse a demotion, never allow the last admin to go. The count is seeded from the users collection
+ * the first time it is needed.
+ */
+@Service
+public class UserRoleService {
+
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private static final String COUNTERS = "counters";
+    private static final String ADMIN_COUNTER = "admins";
+
+    public enum Result { UPDATED, NOT_FOUND, LAST_ADMIN }
+
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private volatile boolean counterSeeded;
+
+    public UserRoleService(UserRepository userRepository, MongoTemplate mongoTemplate) {
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Result updateRoles(String userId, Set<String> newRoles) {
+        return apply(userId, newRoles.contains(ROLE_ADMIN), new Update().set("roles", newRoles));
+    }
+
+    /**
+     * Marks the user for deletion; a user marked for deletion no longer counts as an admin, so the last admin cannot
+     * be deleted. A user already marked counts as UPDATED.
+     */
+    public Result markDeleted(String userId) {
+        Result result = apply(userId, false, new Update().set("deletedAt", Instant.now()));
+        if (result == Result.NOT_FOUND && userRepository.existsById(userId)) return Result.UPDATED;
+        return result;
+    }
+
+    /** Counts a user that was made an admin outside this service (the admin seed). */
+    public void adminAdded() {
+        // A freshly seeded count already includes the new admin
+        if (!seedCounter()) adjustAdmins(1);
+    }
+
+    // Applies the update if the user's admin status is still the one read; retried when it changed in between
+    private Result apply(String userId, boolean adminAfter, Update update) {
+        seedCounter();
+        while (true) {
+            User user = userRepository.findById(userId).orElse(null);
+            // Users marked for deletion are already hidden and no longer count as admins
+            if (user == null || user.getDeletedAt() != null) {
+                return Result.NOT_FOUND;
+            }
+            boolean admin = user.getRoles() != null && user.getRoles().contains(ROLE_ADMIN);
+            boolean demotion = admin && !adminAfter;
+            if (demotion && !takeAdmin()) {
+                return Result.LAST_ADMIN;
+            }
+
+            Criteria unchanged = Criteria.where("_id").is(userId).and("deletedAt").exists(false);
+            if (admin) unchanged.and("roles").is(ROLE_ADMIN);
+            else unchanged.and("roles").ne(ROLE_ADMIN);
+            if (mongoTemplate.updateFirst(new Query(unchanged), update, User.class).getMatchedCount() == 0) {
+                if (demotion) adjustAdmins(1);
+                continue;
+            }
+            if (!admin && adminAfter) adjustAdmins(1);
+            return Result.UPDATED;
+        }
+    }
+
+    // Takes one admin off the count unless it is the last one
+    private boolean takeAdmin() {
+        Query notLast = new Query(Criteria.where("_id").is(ADMIN_COUNTER).and("count").gt(1));
+        return mongoTemplate.findAndModify(notLast, new Update().inc("count", -1), Document.class, COUNTERS) != null;
+    }
+
+    private void adjustAdmins(int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(ADMIN_COUNTER)),
+                new Update().inc("count", delta), COUNTERS);
+    }
+
+    // Returns true if this call created the count
+    private boolean seedCounter() {
+        if (counterSeeded) return false;
+        Query counter = new Query(Criteria.where("_id").is(ADMIN_COUNTER));
+        boolean created = false;
+        if (!mongoTemplate.exists(counter, COUNTERS)) {
+            try {
+                created = mongoTemplate.upsert(counter,
+                        new Update().setOnInsert("count", userRepository.countByRole(ROLE_ADMIN)), COUNTERS)
+                        .getUpsertedId() != null;
+            } catch (DuplicateKeyException e) {
+                // Another node seeded it first
+            }
+        }
+        counterSeeded = true;
+        return created;
+    }
+}
@@ -0,0 +1,47 @@
+package com.resumebuilder.util;
+
+import com.resumebuilder.model.Resume;
+
+/**
+ * Strong ETags for API responses and If-None-Match matching.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    /** ETag for a resume document; changes whenever it is saved (version and updatedAt both move). */
+    public static String forResume(Resume resume) {
+        return quote("r-" + Hashes.sha256Hex(resume.getId(), String.valueOf(resume.getVersion()), String.valueOf(resume.getUpdatedAt())).substring(0, 32));
+    }
+
+    /** ETag for a compiled PDF: the resume state plus the exact template content it is rendered with. */
+    public static String forPdf(Resume resume, String templateId, String templateHash) {
+        return quote("pdf-" + Hashes.sha256Hex(resume.getId(), String.valueOf(resume.getVersion()), String.valueOf(resume.getUpdatedAt()),
+                templateId, templateHash).substring(0, 32));
+    }
+
+    public static String forContent(String... parts) {
+        return quote(Hashes.sha256Hex(parts).substring(0, 32));
+    }
+
+    /**
+     * True if the If-None-Match header value matches the ETag (weak comparison, as RFC 9110 requires for If-None-Match).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) return false;
+        String target = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(target)) return true;
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
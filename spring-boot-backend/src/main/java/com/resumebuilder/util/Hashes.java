@@ -0,0 +1,39 @@
+package com.resumebuilder.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content hashes used for cache keys and ETags.
+ */
+public final class Hashes {
+
+    private Hashes() {}
+
+    /**
+     * SHA-256 over the given parts (null parts hash as empty), as lowercase hex.
+     * Parts are separated by a NUL byte so ("ab", "c") and ("a", "bc") differ.
+     */
+    public static String sha256Hex(String... parts) {
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            if (part != null) digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.resumebuilder.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts what matters from a pdflatex log: the first error and its source line, box warnings, and whether
+ * another pass is needed to settle references.
+ */
+public final class LatexLog {
+
+    private static final Pattern ERROR_LINE = Pattern.compile("^l\\.(\\d+)");
+    private static final Pattern RERUN = Pattern.compile("Rerun to get|Please rerun|Rerun LaTeX|Label\\(s\\) may have changed");
+    private static final int MAX_WARNINGS = 10;
+
+    private LatexLog() {}
+
+    /**
+     * @param firstError   the first "! ..." message, or null if the log has no error
+     * @param errorLine    the .tex line of the first error, or null if the log does not name one
+     * @param overfullBoxes number of "Overfull \hbox/\vbox" warnings (content sticking into the margin)
+     * @param underfullBoxes number of "Underfull" warnings
+     * @param rerunNeeded  whether LaTeX asked for another pass
+     * @param warnings     the first few "LaTeX Warning" / "Package ... Warning" lines
+     */
+    public record Diagnostics(String firstError, Integer errorLine, int overfullBoxes, int underfullBoxes,
+                              boolean rerunNeeded, List<String> warnings) {}
+
+    public static Diagnostics parse(String log) {
+        String firstError = null;
+        Integer errorLine = null;
+        int overfull = 0;
+        int underfull = 0;
+        boolean rerun = false;
+        List<String> warnings = new ArrayList<>();
+        for (String line : log.split("\\R")) {
+            if (line.startsWith("! ")) {
+                if (firstError == null) firstError = line.substring(2).trim();
+            } else if (firstError != null && errorLine == null) {
+                Matcher matcher = ERROR_LINE.matcher(line);
+                if (matcher.find()) errorLine = Integer.parseInt(matcher.group(1));
+            }
+            if (line.startsWith("Overfull \\")) overfull++;
+            else if (line.startsWith("Underfull \\")) underfull++;
+            if (RERUN.matcher(line).find()) rerun = true;
+            if ((line.startsWith("LaTeX Warning:") || line.startsWith("Package ") && line.contains(" Warning:"))
+                    && warnings.size() < MAX_WARNINGS) {
+                warnings.add(line.trim());
+            }
+        }
+        return new Diagnostics(firstError, errorLine, overfull, underfull, rerun, warnings);
+    }
+}
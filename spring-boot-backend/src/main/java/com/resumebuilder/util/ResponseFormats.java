@@ -0,0 +1,39 @@
+package com.resumebuilder.util;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Media type choices for responses whose body type depends on the outcome (e.g. the PDF endpoint's data fallback).
+ */
+public final class ResponseFormats {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private ResponseFormats() {}
+
+    /**
+     * JSON unless the client explicitly asks for CBOR or Smile (Accept is usually application/pdf for the PDF endpoint,
+     * so wildcards do not count).
+     */
+    public static MediaType dataFallback(String accept) {
+        if (accept != null && !accept.isBlank()) {
+            try {
+                MediaType best = null;
+                for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                    boolean binary = type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) || type.equalsTypeAndSubtype(SMILE);
+                    if (binary && type.getQualityValue() > 0
+                            && (best == null || type.getQualityValue() > best.getQualityValue())) {
+                        best = type;
+                    }
+                }
+                if (best != null) {
+                    return new MediaType(best.getType(), best.getSubtype());
+                }
+            } catch (InvalidMediaTypeException e) {
+                // Ignore a malformed Accept header and answer with JSON
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,63 @@
+package com.resumebuilder.util;
+
+import com.resumebuilder.model.Resume;
+import com.resumebuilder.payload.request.ResumePatchRequest;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resume write rules shared by the servlet and reactive resume controllers.
+ */
+public final class ResumeUpdates {
+
+    private ResumeUpdates() {}
+
+    // Mongo dates have millisecond precision; truncate so the returned value matches what is stored
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /** Full update (PUT): copies every editable section onto the stored resume and bumps its version. */
+    public static void applyUpdate(Resume existingResume, Resume resume) {
+        existingResume.setName(resume.getName());
+        existingResume.setPersonalInfo(resume.getPersonalInfo());
+        existingResume.setExperience(resume.getExperience());
+        existingResume.setEducation(resume.getEducation());
+        existingResume.setSkills(resume.getSkills());
+        existingResume.setProjects(resume.getProjects());
+        existingResume.setAchievements(resume.getAchievements());
+        existingResume.setTemplate(resume.getTemplate());
+        existingResume.setUpdatedAt(now());
+        existingResume.setVersion(existingResume.getVersion() != null ? existingResume.getVersion() + 1 : 1L);
+    }
+
+    /** Partial update (PATCH): $set for each section present in the request. */
+    public static Update buildSectionUpdate(ResumePatchRequest patch) {
+        Update update = new Update();
+        if (patch.getName() != null) update.set("name", patch.getName());
+        if (patch.getTemplate() != null) update.set("template", patch.getTemplate());
+        if (patch.getPersonalInfo() != null) update.set("personalInfo", patch.getPersonalInfo());
+        if (patch.getExperience() != null) update.set("experience", patch.getExperience());
+        if (patch.getEducation() != null) update.set("education", patch.getEducation());
+        if (patch.getSkills() != null) update.set("skills", patch.getSkills());
+        if (patch.getProjects() != null) update.set("projects", patch.getProjects());
+        if (patch.getAchievements() != null) update.set("achievements", patch.getAchievements());
+        return update;
+    }
+
+    /** Prepares a new resume for its first save. */
+    public static void initialize(Resume resume, String userId) {
+        Instant currentTime = now();
+        resume.setUserId(userId);
+        resume.setCreatedAt(currentTime);
+        resume.setUpdatedAt(currentTime);
+        resume.setVersion(0L);
+
+        // Set default template if not provided
+        if (resume.getTemplate() == null || resume.getTemplate().isEmpty()) {
+            resume.setTemplate("default");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.resumebuilder.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one: the first caller starts the work, later callers wait on
+ * the same result. Each caller gets its own future; cancelling it (e.g. on timeout) leaves the call, and when the
+ * last caller leaves before the work completes, the work's future is cancelled too. Completed calls are forgotten
+ * at once, so this never serves a stale result; caching is left to the caller.
+ */
+public final class SingleFlight<V> {
+
+    private final Map<String, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Joins the call in flight for key, or starts one with start. The future returned by start should stop its
+     * work when cancelled.
+     */
+    public CompletableFuture<V> join(String key, Supplier<CompletableFuture<V>> start) {
+        boolean[] leader = {false};
+        Flight<V> flight = flights.compute(key, (k, existing) -> {
+            Flight<V> joined = existing != null ? existing : new Flight<>();
+            leader[0] = existing == null;
+            joined.waiters++;
+            return joined;
+        });
+
+        CompletableFuture<V> handle = new CompletableFuture<>();
+        flight.result.whenComplete((value, error) -> {
+            if (error != null) handle.completeExceptionally(error);
+            else handle.complete(value);
+        });
+        handle.whenComplete((value, error) -> {
+            if (handle.isCancelled()) leave(key, flight);
+        });
+
+        if (leader[0]) {
+            try {
+                CompletableFuture<V> call = start.get();
+                flight.call = call;
+                if (flight.cancelled) call.cancel(true);
+                call.whenComplete((value, error) -> {
+                    flights.remove(key, flight);
+                    if (error != null) flight.result.completeExceptionally(error);
+                    else flight.result.complete(value);
+                });
+            } catch (RuntimeException e) {
+                flights.remove(key, flight);
+                flight.result.completeExceptionally(e);
+            }
+        }
+        return handle;
+    }
+
+    /** Number of distinct calls currently in flight. */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private void leave(String key, Flight<V> flight) {
+        boolean[] last = {false};
+        flights.computeIfPresent(key, (k, current) -> {
+            if (current != flight || --current.waiters > 0) return current;
+            last[0] = true;
+            return null;
+        });
+        if (last[0]) {
+            // Pairs with the leader's write of call then read of cancelled: one side always sees the other
+            flight.cancelled = true;
+            CompletableFuture<V> call = flight.call;
+            if (call != null) call.cancel(true);
+            flight.result.cancel(false);
+        }
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        // Guarded by the map's per-key compute
+        int waiters;
+        volatile CompletableFuture<V> call;
+        volatile boolean cancelled;
+    }
+}